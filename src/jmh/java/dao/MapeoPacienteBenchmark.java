@@ -0,0 +1,95 @@
+package dao;
+
+import model.Paciente;
+import model.PacientesDePrueba;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada MapeoPacienteBenchmark mide la conversión de filas de un
+ *              ResultSet a objetos Paciente (PacienteDAO.mapear). En lugar de MySQL usa una base
+ *              H2 en memoria con la misma tabla; el ResultSet es desplazable y se rebobina en
+ *              cada operación, de modo que se mide el mapeo y no la ejecución de la consulta.
+ * */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeoPacienteBenchmark {
+
+    @Param({"1", "100"})
+    private int filas;
+
+    private Connection conexion;
+    private Statement sentencia;
+    private ResultSet resultado;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        conexion = DriverManager.getConnection("jdbc:h2:mem:mapeo" + filas + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        try (Statement ddl = conexion.createStatement()) {
+            ddl.execute("CREATE TABLE IF NOT EXISTS paciente (cedula VARCHAR(10) PRIMARY KEY, nombre VARCHAR(100) NOT NULL, "
+                    + "correo VARCHAR(100) NOT NULL UNIQUE, edad INT NOT NULL, direccion VARCHAR(200), activo TINYINT(1) DEFAULT 1, "
+                    + "fecha_creacion TIMESTAMP NOT NULL, fecha_actualizacion TIMESTAMP NOT NULL)");
+            ddl.execute("DELETE FROM paciente");
+        }
+        try (PreparedStatement insertar = conexion.prepareStatement(
+                "INSERT INTO paciente VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (Paciente paciente : PacientesDePrueba.generar(filas)) {
+                insertar.setString(1, paciente.getCedula());
+                insertar.setString(2, paciente.getNombre());
+                insertar.setString(3, paciente.getCorreo());
+                insertar.setInt(4, paciente.getEdad());
+                insertar.setString(5, paciente.getDireccion());
+                insertar.setBoolean(6, paciente.isActivo());
+                insertar.setTimestamp(7, Timestamp.valueOf(paciente.getFechaCreacion()));
+                insertar.setTimestamp(8, Timestamp.valueOf(paciente.getFechaActualizacion()));
+                insertar.addBatch();
+            }
+            insertar.executeBatch();
+        }
+        sentencia = conexion.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        resultado = sentencia.executeQuery("SELECT * FROM paciente ORDER BY cedula");
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws SQLException {
+        resultado.close();
+        sentencia.close();
+        conexion.close();
+    }
+
+    @Benchmark
+    public void mapear(Blackhole blackhole) throws SQLException {
+        resultado.beforeFirst();
+        while (resultado.next()) {
+            blackhole.consume(PacienteDAO.mapear(resultado));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package filter;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada CorsFilterBenchmark mide el costo de CorsFilter.filter,
+ *              que se ejecuta en cada respuesta. Los contextos de JAX-RS se simulan con proxies
+ *              que solo entregan el mapa de headers.
+ * */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CorsFilterBenchmark {
+
+    private CorsFilter filtro;
+    private ContainerRequestContext solicitud;
+    private ContainerResponseContext respuesta;
+    private MultivaluedMap<String, Object> headers;
+
+    @Setup
+    public void preparar() {
+        filtro = new CorsFilter();
+        headers = new MultivaluedHashMap<>();
+        solicitud = (ContainerRequestContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ContainerRequestContext.class}, (proxy, method, args) -> null);
+        respuesta = (ContainerResponseContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ContainerResponseContext.class},
+                (proxy, method, args) -> "getHeaders".equals(method.getName()) ? headers : null);
+    }
+
+    @Benchmark
+    public MultivaluedMap<String, Object> filter() throws IOException {
+        headers.clear();
+        filtro.filter(solicitud, respuesta);
+        return headers;
+    }
+}
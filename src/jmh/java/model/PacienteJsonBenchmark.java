@@ -0,0 +1,128 @@
+package model;
+
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import json.PacienteJson;
+import json.SalidaJson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada PacienteJsonBenchmark compara la conversión JSON de un
+ *              Paciente y de una página de pacientes entre JSON-B (Yasson), el mecanismo genérico
+ *              por reflexión del servidor, y PacienteJson, el que usa PacienteJsonProvider.
+ * */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacienteJsonBenchmark {
+
+    // Tamaño de la página por defecto del listado
+    private static final int TAMANO_PAGINA = 50;
+
+    // Tipo List<Paciente> para que JSON-B sepa qué construir al leer
+    private static final Type LISTA_PACIENTES = new ArrayList<Paciente>() { }.getClass().getGenericSuperclass();
+
+    private Jsonb jsonb;
+    private Paciente paciente;
+    private List<Paciente> pagina;
+    private ByteArrayOutputStream salida;
+    private byte[] pacienteJson;
+    private byte[] paginaJson;
+
+    @Setup
+    public void preparar() throws IOException {
+        jsonb = JsonbBuilder.create();
+        pagina = PacientesDePrueba.generar(TAMANO_PAGINA);
+        paciente = pagina.get(0);
+        salida = new ByteArrayOutputStream(64 * 1024);
+
+        // Ambos mecanismos deben producir exactamente el mismo documento
+        pacienteJson = paciente();
+        paginaJson = listaPacientes();
+        if (!Arrays.equals(pacienteJson, pacienteManual()) || !Arrays.equals(paginaJson, listaPacientesManual())) {
+            throw new IllegalStateException("PacienteJson no produce el mismo JSON que JSON-B");
+        }
+    }
+
+    @TearDown
+    public void cerrar() throws Exception {
+        jsonb.close();
+    }
+
+    @Benchmark
+    public byte[] paciente() {
+        salida.reset();
+        jsonb.toJson(paciente, salida);
+        return salida.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] listaPacientes() {
+        salida.reset();
+        jsonb.toJson(pagina, salida);
+        return salida.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] pacienteManual() throws IOException {
+        salida.reset();
+        SalidaJson json = new SalidaJson(salida, 8 * 1024);
+        PacienteJson.escribir(paciente, json);
+        json.vaciar();
+        return salida.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] listaPacientesManual() throws IOException {
+        salida.reset();
+        SalidaJson json = new SalidaJson(salida, 8 * 1024);
+        PacienteJson.escribirLista(pagina, json);
+        json.vaciar();
+        return salida.toByteArray();
+    }
+
+    @Benchmark
+    public Paciente leerPaciente() {
+        return jsonb.fromJson(new ByteArrayInputStream(pacienteJson), Paciente.class);
+    }
+
+    @Benchmark
+    public List<Paciente> leerListaPacientes() {
+        return jsonb.fromJson(new ByteArrayInputStream(paginaJson), LISTA_PACIENTES);
+    }
+
+    @Benchmark
+    public Paciente leerPacienteManual() {
+        return PacienteJson.leer(PacienteJson.parser(new ByteArrayInputStream(pacienteJson)));
+    }
+
+    @Benchmark
+    public List<Paciente> leerListaPacientesManual() {
+        return PacienteJson.leerLista(PacienteJson.parser(new ByteArrayInputStream(paginaJson)));
+    }
+}
@@ -0,0 +1,49 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada PacientesDePrueba genera pacientes sintéticos con
+ *              tamaños de campo parecidos a los reales para alimentar los benchmarks.
+ * */
+
+public final class PacientesDePrueba {
+
+    private static final String[] NOMBRES = {"Mateo", "María José", "Kevin", "Fernanda", "Moisés", "Ana Lucía"};
+    private static final String[] APELLIDOS = {"Lasso", "Morales", "López", "Caicedo", "Yánez", "Suasnavas"};
+
+    /*
+     * Constructor privado: clase de utilidades estáticas
+     * */
+    private PacientesDePrueba() {
+    }
+
+    /*
+     * Método que genera una lista de pacientes con cédulas consecutivas
+     * @param cantidad Parámetro que define cuántos pacientes generar
+     * @return Lista de pacientes sintéticos
+     * */
+    public static List<Paciente> generar(int cantidad) {
+        List<Paciente> pacientes = new ArrayList<>(cantidad);
+        LocalDateTime base = LocalDateTime.of(2025, 12, 7, 10, 0);
+        for (int i = 0; i < cantidad; i++) {
+            String nombre = NOMBRES[i % NOMBRES.length] + " " + APELLIDOS[(i / NOMBRES.length) % APELLIDOS.length];
+            Paciente paciente = new Paciente(
+                    String.format("17%08d", i),
+                    nombre,
+                    "paciente" + i + "@hospital.ec",
+                    1 + (i % 120),
+                    "Av. Amazonas N" + (i % 90) + "-" + (i % 17) + " y Av. Naciones Unidas, Quito");
+            paciente.setActivo(i % 5 != 0);
+            paciente.setFechaCreacion(base.plusMinutes(i));
+            paciente.setFechaActualizacion(base.plusMinutes(i + 30L));
+            pacientes.add(paciente);
+        }
+        return pacientes;
+    }
+}
@@ -0,0 +1,98 @@
+package validacion;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada ValidadorCedulaBenchmark compara con JMH la validación
+ *              de cédulas de ValidadorCedula contra la implementación anterior de
+ *              PacienteResource (String.matches + substring + Integer.parseInt).
+ *              Ejecutar con -prof gc para ver también la asignación de memoria por operación.
+ * */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidadorCedulaBenchmark {
+
+    @Param({"1750002568", "1718123293", "17500A2568"})
+    private String cedula;
+
+    private String[] lote;
+    private boolean[] resultados;
+
+    @Setup
+    public void preparar() {
+        lote = new String[]{"1708146111", "1726849696", "1750002568", "1753745494", "1718123293",
+                "1723456789", "0000000000", "17500A2568", "3012345678", "0912345678"};
+        resultados = new boolean[lote.length];
+    }
+
+    @Benchmark
+    public boolean implementacionAnterior() {
+        return validarCedulaAnterior(cedula);
+    }
+
+    @Benchmark
+    public boolean validadorCedula() {
+        return ValidadorCedula.esValida(cedula);
+    }
+
+    @Benchmark
+    public int loteImplementacionAnterior() {
+        int validas = 0;
+        for (String c : lote) {
+            if (validarCedulaAnterior(c)) {
+                validas++;
+            }
+        }
+        return validas;
+    }
+
+    @Benchmark
+    public int loteValidadorCedula() {
+        return ValidadorCedula.validarTodas(lote, resultados);
+    }
+
+    /*
+     * Copia de la validación original de PacienteResource, usada como línea base
+     * */
+    private static boolean validarCedulaAnterior(String cedula) {
+        if (cedula == null || cedula.length() != 10) {
+            return false;
+        }
+
+        if (!cedula.matches("\\d{10}")) {
+            return false;
+        }
+
+        int[] coeficientes = {2, 1, 2, 1, 2, 1, 2, 1, 2};
+        int verificador = Integer.parseInt(cedula.substring(9, 10));
+        int suma = 0;
+
+        for (int i = 0; i < 9; i++) {
+            int valor = Integer.parseInt(cedula.substring(i, i + 1)) * coeficientes[i];
+            suma += (valor > 9) ? valor - 9 : valor;
+        }
+
+        int digitoCalculado = (suma % 10 == 0) ? 0 : 10 - (suma % 10);
+
+        return digitoCalculado == verificador;
+    }
+}
@@ -0,0 +1,130 @@
+package busqueda;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada FiltroBloom es un filtro de Bloom de tamaño fijo sobre
+ *              textos: responde "seguro que no está" o "puede estar" usando unos pocos bits por
+ *              elemento. Los bits se guardan en un AtomicLongArray, por lo que se puede agregar y
+ *              consultar desde varios hilos sin bloqueos. No permite quitar elementos: para
+ *              olvidar los eliminados se construye uno nuevo.
+ * */
+
+final class FiltroBloom {
+
+    private final AtomicLongArray palabras;
+    private final long bits;
+    private final int funciones;
+    private final long capacidad;
+
+    private final LongAdder bitsActivos = new LongAdder();
+    private final LongAdder elementos = new LongAdder();
+
+    /*
+     * Constructor que dimensiona el filtro: m = -n·ln(p) / ln(2)² bits y k = m/n·ln(2) funciones
+     * @param capacidad Parámetro que define el número de elementos esperado
+     * @param probabilidadFalsoPositivo Parámetro que define la tasa de falsos positivos buscada con esa capacidad
+     * */
+    FiltroBloom(long capacidad, double probabilidadFalsoPositivo) {
+        double p = Math.min(Math.max(probabilidadFalsoPositivo, 1e-9), 0.5);
+        long n = Math.max(capacidad, 1);
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        int largo = (int) Math.min((m + 63) / 64, Integer.MAX_VALUE - 8);
+        this.palabras = new AtomicLongArray(Math.max(largo, 1));
+        this.bits = 64L * palabras.length();
+        this.funciones = (int) Math.max(1, Math.min(16, Math.round((double) bits / n * Math.log(2))));
+        this.capacidad = n;
+    }
+
+    /*
+     * Método que agrega un texto al filtro
+     * @param valor Parámetro que define el texto a agregar
+     * */
+    void agregar(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < funciones; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            long mascara = 1L << bit;
+            long previo = palabras.getAndAccumulate((int) (bit >>> 6), mascara, (a, b) -> a | b);
+            if ((previo & mascara) == 0) {
+                bitsActivos.increment();
+            }
+        }
+        elementos.increment();
+    }
+
+    /*
+     * Método que consulta si un texto puede estar en el filtro
+     * @param valor Parámetro que define el texto a consultar
+     * @return false si seguro no se agregó; true si se agregó o es un falso positivo
+     * */
+    boolean puedeContener(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < funciones; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((palabras.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long getBits() {
+        return bits;
+    }
+
+    int getFunciones() {
+        return funciones;
+    }
+
+    long getCapacidad() {
+        return capacidad;
+    }
+
+    long getElementos() {
+        return elementos.sum();
+    }
+
+    /*
+     * Método que obtiene la fracción de bits encendidos
+     * @return Valor entre 0 y 1
+     * */
+    double ocupacion() {
+        return (double) bitsActivos.sum() / bits;
+    }
+
+    /*
+     * Método que estima la tasa actual de falsos positivos a partir de la ocupación (ocupación^k)
+     * @return Probabilidad estimada de que un texto ausente pase el filtro
+     * */
+    double falsosPositivosEstimados() {
+        return Math.pow(ocupacion(), funciones);
+    }
+
+    /*
+     * Método privado que calcula un hash de 64 bits (FNV-1a seguido de la mezcla final de MurmurHash3)
+     * */
+    private static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mezclar(h);
+    }
+
+    private static long mezclar(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53a2f21L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
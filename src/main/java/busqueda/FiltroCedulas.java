@@ -0,0 +1,176 @@
+package busqueda;
+
+import config.Configuracion;
+import dao.PacienteDAO;
+import dao.PacienteListener;
+import model.Paciente;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada FiltroCedulas guarda en un filtro de Bloom todas las cédulas
+ *              registradas para responder 404 sin consultar MySQL cuando una cédula seguro no existe
+ *              (cédulas mal escritas, sondeos). Se construye al iniciar la aplicación, agrega las
+ *              altas por los avisos de PacienteDAO y se reconstruye periódicamente para olvidar las
+ *              cédulas eliminadas y ajustar su tamaño. Mientras no está construido deja pasar todo.
+ * */
+
+public final class FiltroCedulas implements PacienteListener {
+
+    private static final boolean HABILITADO = Configuracion.booleano("hospital.filtro.habilitado", true);
+
+    // Tasa de falsos positivos buscada al dimensionar el filtro
+    private static final double PROBABILIDAD_FALSO_POSITIVO = Configuracion.decimal("hospital.filtro.fpp", 0.01);
+
+    // Capacidad mínima, y margen de crecimiento sobre el total de pacientes hasta la próxima reconstrucción
+    private static final long CAPACIDAD_MINIMA = 1024;
+    private static final double MARGEN_CRECIMIENTO = 1.5;
+
+    private static final FiltroCedulas INSTANCIA = new FiltroCedulas();
+
+    static {
+        PacienteDAO.registrarListener(INSTANCIA);
+    }
+
+    // Filtro que responde las consultas (null hasta la primera construcción)
+    private volatile FiltroBloom actual;
+
+    // Filtro que se está llenando; las altas que llegan durante el recorrido se agregan a ambos
+    private volatile FiltroBloom enConstruccion;
+
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder descartes = new LongAdder();
+    private final LongAdder falsosPositivos = new LongAdder();
+
+    /*
+     * Constructor privado: se usa la instancia única
+     * */
+    private FiltroCedulas() {
+    }
+
+    /*
+     * Método que obtiene la instancia única del filtro
+     * @return Filtro de cédulas compartido por la aplicación
+     * */
+    public static FiltroCedulas getInstance() {
+        return INSTANCIA;
+    }
+
+    /*
+     * Método que construye un filtro nuevo recorriendo la tabla paciente y lo pone en uso.
+     * Se dimensiona con el total actual más un margen para las altas hasta la próxima vez.
+     * */
+    public synchronized void construir() {
+        if (!HABILITADO) {
+            return;
+        }
+        try {
+            PacienteDAO dao = new PacienteDAO();
+            long total = dao.contar();
+            if (total < 0) {
+                return;
+            }
+            FiltroBloom nuevo = new FiltroBloom(
+                    Math.max(CAPACIDAD_MINIMA, (long) (total * MARGEN_CRECIMIENTO)), PROBABILIDAD_FALSO_POSITIVO);
+            // Se publica antes del recorrido: un alta confirmada después del inicio de la
+            // consulta no aparece en ella, pero su aviso llega a este filtro
+            enConstruccion = nuevo;
+            dao.recorrer(paciente -> nuevo.agregar(paciente.getCedula()));
+            actual = nuevo;
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            enConstruccion = null;
+        }
+    }
+
+    /*
+     * Método que indica si una cédula seguro no está registrada
+     * @param cedula Parámetro que define la cédula consultada
+     * @return true si se puede responder 404 sin consultar la base de datos
+     * */
+    public boolean descartada(String cedula) {
+        FiltroBloom filtro = actual;
+        if (filtro == null) {
+            return false;
+        }
+        consultas.increment();
+        if (filtro.puedeContener(cedula)) {
+            return false;
+        }
+        descartes.increment();
+        return true;
+    }
+
+    /*
+     * Método que registra una cédula que pasó el filtro pero no existe en la base de datos
+     * (falso positivo, o paciente eliminado desde la última reconstrucción)
+     * */
+    public void registrarAusente() {
+        if (actual != null) {
+            falsosPositivos.increment();
+        }
+    }
+
+    @Override
+    public void creado(Paciente paciente) {
+        // Se lee enConstruccion antes que actual, al revés del orden en que construir los escribe:
+        // si aquí ya no hay filtro en construcción, actual ya es el filtro nuevo y el alta no se
+        // queda solo en el filtro que se está descartando
+        FiltroBloom nuevo = enConstruccion;
+        FiltroBloom filtro = actual;
+        if (nuevo != null) {
+            nuevo.agregar(paciente.getCedula());
+        }
+        if (filtro != null && filtro != nuevo) {
+            filtro.agregar(paciente.getCedula());
+        }
+    }
+
+    /*
+     * Método que indica si el filtro ya está respondiendo consultas
+     * @return true después de la primera construcción
+     * */
+    public boolean isListo() {
+        return actual != null;
+    }
+
+    public long getElementos() {
+        FiltroBloom filtro = actual;
+        return (filtro == null) ? 0 : filtro.getElementos();
+    }
+
+    public long getCapacidad() {
+        FiltroBloom filtro = actual;
+        return (filtro == null) ? 0 : filtro.getCapacidad();
+    }
+
+    public long getBits() {
+        FiltroBloom filtro = actual;
+        return (filtro == null) ? 0 : filtro.getBits();
+    }
+
+    public double getOcupacion() {
+        FiltroBloom filtro = actual;
+        return (filtro == null) ? 0 : filtro.ocupacion();
+    }
+
+    public double getFalsosPositivosEstimados() {
+        FiltroBloom filtro = actual;
+        return (filtro == null) ? 0 : filtro.falsosPositivosEstimados();
+    }
+
+    public long getConsultas() {
+        return consultas.sum();
+    }
+
+    public long getDescartes() {
+        return descartes.sum();
+    }
+
+    public long getFalsosPositivos() {
+        return falsosPositivos.sum();
+    }
+}
@@ -0,0 +1,390 @@
+package busqueda;
+
+import config.Configuracion;
+import dao.PacienteDAO;
+import dao.PacienteListener;
+import model.Paciente;
+import model.ResultadoBusqueda;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada IndiceNombres es un índice invertido en memoria para
+ *              autocompletar pacientes por nombre (y opcionalmente correo). Las palabras se
+ *              normalizan sin tildes y en minúsculas y se guardan en un mapa ordenado, de modo
+ *              que una búsqueda por prefijo es un recorrido de rango. Se construye al iniciar la
+ *              aplicación y se mantiene al día con los avisos de escritura de PacienteDAO.
+ * */
+
+public final class IndiceNombres implements PacienteListener {
+
+    // Puntajes por tipo de coincidencia de cada palabra buscada
+    private static final int PUNTAJE_PALABRA_EXACTA = 4;
+    private static final int PUNTAJE_PREFIJO_NOMBRE = 2;
+    private static final int PUNTAJE_PREFIJO_CORREO = 1;
+    private static final int PUNTAJE_INICIO_NOMBRE = 3;
+
+    // Cédulas que se puntúan como máximo por búsqueda: un prefijo corto ("a") abarca casi toda
+    // la tabla, y más allá de este número el autocompletado ya no mejora de forma visible
+    private static final int MAX_CANDIDATOS =
+            Math.max(1, Configuracion.entero("hospital.busqueda.maxCandidatos", 2000));
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private static final IndiceNombres INSTANCIA =
+            new IndiceNombres(Configuracion.booleano("hospital.busqueda.indexarCorreo", true));
+
+    static {
+        PacienteDAO.registrarListener(INSTANCIA);
+    }
+
+    private final boolean indexarCorreo;
+
+    // Documento indexado por cédula
+    private final ConcurrentMap<String, Documento> documentos = new ConcurrentHashMap<>();
+
+    // Palabra normalizada -> cédulas que la contienen
+    private final ConcurrentSkipListMap<String, Set<String>> palabras = new ConcurrentSkipListMap<>();
+
+    // Ordena las altas y bajas en palabras: quitar una palabra cuyo conjunto quedó vacío no debe
+    // perder la cédula que otro hilo le agrega al mismo tiempo. Las búsquedas no lo toman.
+    private final Object candadoPalabras = new Object();
+
+    // Cédulas eliminadas mientras se cargaba el índice, para no volver a agregarlas
+    private final Set<String> eliminadosDuranteCarga = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean listo;
+
+    /*
+     * Constructor que crea el índice vacío
+     * @param indexarCorreo Parámetro que define si también se indexan las palabras del correo
+     * */
+    private IndiceNombres(boolean indexarCorreo) {
+        this.indexarCorreo = indexarCorreo;
+    }
+
+    /*
+     * Método que obtiene la instancia única del índice
+     * @return Índice de nombres compartido por la aplicación
+     * */
+    public static IndiceNombres getInstance() {
+        return INSTANCIA;
+    }
+
+    /*
+     * Método que carga el índice recorriendo la tabla paciente en streaming.
+     * Las escrituras que llegan durante la carga se aplican por los avisos del DAO.
+     * */
+    public void construir() {
+        try {
+            new PacienteDAO().recorrer(paciente -> {
+                if (!eliminadosDuranteCarga.contains(paciente.getCedula())
+                        && !documentos.containsKey(paciente.getCedula())) {
+                    indexar(paciente);
+                }
+            });
+            listo = true;
+            eliminadosDuranteCarga.clear();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /*
+     * Método que indica si el índice ya terminó su carga inicial
+     * @return true si el índice puede responder búsquedas
+     * */
+    public boolean isListo() {
+        return listo;
+    }
+
+    /*
+     * Método que obtiene el número de pacientes indexados
+     * @return Cantidad de documentos en el índice
+     * */
+    public int getTamano() {
+        return documentos.size();
+    }
+
+    /*
+     * Método que obtiene el número de palabras distintas del índice
+     * @return Cantidad de palabras indexadas
+     * */
+    public int getPalabras() {
+        return palabras.size();
+    }
+
+    /*
+     * Método que busca pacientes cuyas palabras empiecen por cada palabra de la consulta. Con
+     * prefijos muy comunes solo se puntúan las primeras MAX_CANDIDATOS cédulas del rango.
+     * @param consulta Parámetro que define el texto escrito por el usuario (ej. "mat las")
+     * @param limite Parámetro que define el número máximo de resultados
+     * @return Coincidencias ordenadas por puntaje descendente y luego por nombre
+     * */
+    public List<ResultadoBusqueda> buscar(String consulta, int limite) {
+        List<String> terminos = tokenizar(consulta);
+        if (terminos.isEmpty() || limite <= 0) {
+            return Collections.emptyList();
+        }
+
+        // Se parte del término más largo, que suele ser el más selectivo
+        String pivote = Collections.max(terminos, Comparator.comparingInt(String::length));
+        Comparator<ResultadoBusqueda> orden = Comparator.comparingInt(ResultadoBusqueda::getPuntaje)
+                .thenComparing(ResultadoBusqueda::getNombre, Comparator.reverseOrder());
+        PriorityQueue<ResultadoBusqueda> mejores = new PriorityQueue<>(limite + 1, orden);
+        Set<String> vistos = new HashSet<>();
+
+        // Las palabras se recorren en orden, así la palabra igual al término (la de mayor puntaje)
+        // va primero, y el recorrido se corta al llegar a MAX_CANDIDATOS cédulas distintas
+        for (Set<String> cedulas : rangoPrefijo(pivote).values()) {
+            if (vistos.size() >= MAX_CANDIDATOS) {
+                break;
+            }
+            for (String cedula : cedulas) {
+                if (vistos.size() >= MAX_CANDIDATOS) {
+                    break;
+                }
+                if (!vistos.add(cedula)) {
+                    continue;
+                }
+                Documento documento = documentos.get(cedula);
+                int puntaje = (documento == null) ? 0 : documento.puntaje(terminos);
+                if (puntaje > 0) {
+                    mejores.add(new ResultadoBusqueda(documento.cedula, documento.nombre,
+                            documento.correo, documento.activo, puntaje));
+                    if (mejores.size() > limite) {
+                        mejores.poll();
+                    }
+                }
+            }
+        }
+
+        List<ResultadoBusqueda> resultados = new ArrayList<>(mejores);
+        resultados.sort(orden.reversed());
+        return resultados;
+    }
+
+    @Override
+    public void creado(Paciente paciente) {
+        indexar(paciente);
+    }
+
+    @Override
+    public void actualizado(Paciente paciente) {
+        indexar(paciente);
+    }
+
+    @Override
+    public void parcheado(String cedula, Map<String, Object> cambios) {
+        Documento actual = documentos.get(cedula);
+        if (actual == null) {
+            return;
+        }
+        Paciente paciente = new Paciente();
+        paciente.setCedula(cedula);
+        paciente.setNombre(cambios.containsKey("nombre") ? (String) cambios.get("nombre") : actual.nombre);
+        paciente.setCorreo(cambios.containsKey("correo") ? (String) cambios.get("correo") : actual.correo);
+        paciente.setActivo(cambios.containsKey("activo") ? (Boolean) cambios.get("activo") : actual.activo);
+        indexar(paciente);
+    }
+
+    @Override
+    public void estadoCambiado(String cedula, boolean activo) {
+        documentos.computeIfPresent(cedula, (clave, documento) -> documento.conActivo(activo));
+    }
+
+    @Override
+    public void eliminado(String cedula) {
+        if (!listo) {
+            eliminadosDuranteCarga.add(cedula);
+        }
+        documentos.computeIfPresent(cedula, (clave, anterior) -> {
+            desindexar(anterior);
+            return null;
+        });
+    }
+
+    /*
+     * Método que agrega o reemplaza un paciente en el índice
+     * @param paciente Parámetro que define el paciente a indexar
+     * */
+    private void indexar(Paciente paciente) {
+        Documento nuevo = new Documento(paciente.getCedula(), paciente.getNombre(), paciente.getCorreo(),
+                paciente.isActivo(), tokenizar(paciente.getNombre()),
+                indexarCorreo ? tokenizar(parteLocal(paciente.getCorreo())) : Collections.emptyList());
+
+        documentos.compute(nuevo.cedula, (clave, anterior) -> {
+            if (anterior != null) {
+                desindexar(anterior);
+            }
+            for (String palabra : nuevo.palabrasNombre) {
+                agregarPalabra(palabra, clave);
+            }
+            for (String palabra : nuevo.palabrasCorreo) {
+                agregarPalabra(palabra, clave);
+            }
+            return nuevo;
+        });
+    }
+
+    /*
+     * Método que quita las palabras de un documento del índice invertido
+     * @param documento Parámetro que define el documento a quitar
+     * */
+    private void desindexar(Documento documento) {
+        for (String palabra : documento.palabrasNombre) {
+            quitarPalabra(palabra, documento.cedula);
+        }
+        for (String palabra : documento.palabrasCorreo) {
+            quitarPalabra(palabra, documento.cedula);
+        }
+    }
+
+    /*
+     * Método que agrega una cédula a la lista de una palabra
+     * @param palabra Parámetro que define la palabra normalizada
+     * @param cedula Parámetro que define la cédula a agregar
+     * */
+    private void agregarPalabra(String palabra, String cedula) {
+        synchronized (candadoPalabras) {
+            palabras.computeIfAbsent(palabra, p -> ConcurrentHashMap.newKeySet()).add(cedula);
+        }
+    }
+
+    /*
+     * Método que quita una cédula de la lista de una palabra, y la palabra si ya no la tiene nadie,
+     * para que el índice no crezca con cada nombre que alguna vez se usó
+     * @param palabra Parámetro que define la palabra normalizada
+     * @param cedula Parámetro que define la cédula a quitar
+     * */
+    private void quitarPalabra(String palabra, String cedula) {
+        synchronized (candadoPalabras) {
+            Set<String> cedulas = palabras.get(palabra);
+            if (cedulas != null && cedulas.remove(cedula) && cedulas.isEmpty()) {
+                palabras.remove(palabra);
+            }
+        }
+    }
+
+    /*
+     * Método que obtiene las palabras del índice que empiezan por un prefijo
+     * @param prefijo Parámetro que define el prefijo normalizado
+     * @return Submapa ordenado con las palabras del rango
+     * */
+    private NavigableMap<String, Set<String>> rangoPrefijo(String prefijo) {
+        return palabras.subMap(prefijo, true, prefijo + Character.MAX_VALUE, false);
+    }
+
+    /*
+     * Método que normaliza un texto (sin tildes, minúsculas) y lo separa en palabras
+     * @param texto Parámetro que define el texto a procesar
+     * @return Lista de palabras normalizadas, sin repetidos
+     * */
+    static List<String> tokenizar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String normalizado = MARCAS_DIACRITICAS
+                .matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> resultado = new ArrayList<>(4);
+        for (String palabra : SEPARADORES.split(normalizado)) {
+            if (!palabra.isEmpty() && !resultado.contains(palabra)) {
+                resultado.add(palabra);
+            }
+        }
+        return resultado;
+    }
+
+    /*
+     * Método que obtiene la parte del correo anterior a la arroba
+     * @param correo Parámetro que define el correo electrónico
+     * @return Parte local del correo, o el correo completo si no tiene arroba
+     * */
+    private static String parteLocal(String correo) {
+        if (correo == null) {
+            return null;
+        }
+        int arroba = correo.indexOf('@');
+        return (arroba < 0) ? correo : correo.substring(0, arroba);
+    }
+
+    /*
+     * Paciente indexado: datos a devolver y palabras normalizadas de nombre y correo
+     * */
+    private static final class Documento {
+        final String cedula;
+        final String nombre;
+        final String correo;
+        final boolean activo;
+        final List<String> palabrasNombre;
+        final List<String> palabrasCorreo;
+
+        Documento(String cedula, String nombre, String correo, boolean activo,
+                  List<String> palabrasNombre, List<String> palabrasCorreo) {
+            this.cedula = cedula;
+            this.nombre = nombre;
+            this.correo = correo;
+            this.activo = activo;
+            this.palabrasNombre = palabrasNombre;
+            this.palabrasCorreo = palabrasCorreo;
+        }
+
+        Documento conActivo(boolean nuevoActivo) {
+            return new Documento(cedula, nombre, correo, nuevoActivo, palabrasNombre, palabrasCorreo);
+        }
+
+        /*
+         * Calcula la relevancia: cada término debe coincidir con alguna palabra, o el puntaje es 0
+         * */
+        int puntaje(List<String> terminos) {
+            int total = 0;
+            for (String termino : terminos) {
+                int mejor = 0;
+                for (String palabra : palabrasNombre) {
+                    if (palabra.equals(termino)) {
+                        mejor = PUNTAJE_PALABRA_EXACTA;
+                        break;
+                    }
+                    if (palabra.startsWith(termino)) {
+                        mejor = Math.max(mejor, PUNTAJE_PREFIJO_NOMBRE);
+                    }
+                }
+                if (mejor == 0) {
+                    for (String palabra : palabrasCorreo) {
+                        if (palabra.startsWith(termino)) {
+                            mejor = PUNTAJE_PREFIJO_CORREO;
+                            break;
+                        }
+                    }
+                }
+                if (mejor == 0) {
+                    return 0;
+                }
+                total += mejor;
+            }
+            if (!palabrasNombre.isEmpty() && palabrasNombre.get(0).startsWith(terminos.get(0))) {
+                total += PUNTAJE_INICIO_NOMBRE;
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package cache;
+
+import config.Configuracion;
+import dao.PacienteDAO;
+import dao.PacienteListener;
+import model.Paciente;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada PacienteCache es una caché en memoria de lectura directa
+ *              (read-through) de pacientes por cédula, ubicada delante de PacienteDAO.
+ *              Está acotada por tamaño (LRU por segmento) y por tiempo de vida (TTL), y se
+ *              invalida con cada escritura que notifica el DAO. Los fallos simultáneos de la misma
+ *              cédula comparten una sola consulta (VueloUnico). Los objetos Paciente devueltos
+ *              son compartidos entre solicitudes y no deben modificarse.
+ * */
+
+public final class PacienteCache implements PacienteListener {
+
+    // Número de segmentos independientes para repartir la contención entre hilos
+    private static final int SEGMENTOS = 16;
+
+    private static final PacienteCache INSTANCIA = new PacienteCache(
+            Configuracion.entero("hospital.cache.tamanoMaximo", 10_000),
+            Configuracion.largo("hospital.cache.ttlSegundos", 30));
+
+    static {
+        PacienteDAO.registrarListener(INSTANCIA);
+    }
+
+    private final Segmento[] segmentos;
+    private final long ttlNanos;
+    private final boolean habilitada;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+    private final LongAdder expiraciones = new LongAdder();
+    private final LongAdder invalidacionesTotales = new LongAdder();
+
+    // Se incrementa en cada invalidación; una carga que se cruza con una escritura no se guarda
+    private final AtomicLong generacion = new AtomicLong();
+
+    // Consultas en curso por cédula, compartidas por los fallos que llegan mientras tanto
+    private final VueloUnico<String, Paciente> vuelos = new VueloUnico<>();
+
+    /*
+     * Constructor que crea la caché con sus límites
+     * @param tamanoMaximo Parámetro que define el número máximo de pacientes en caché (0 la deshabilita)
+     * @param ttlSegundos Parámetro que define el tiempo máximo que una entrada se considera vigente
+     * */
+    private PacienteCache(int tamanoMaximo, long ttlSegundos) {
+        this.habilitada = tamanoMaximo > 0 && ttlSegundos > 0;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(ttlSegundos, 0));
+        int porSegmento = Math.max(1, tamanoMaximo / SEGMENTOS);
+        this.segmentos = new Segmento[SEGMENTOS];
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento(porSegmento);
+        }
+    }
+
+    /*
+     * Método que obtiene la instancia única de la caché
+     * @return Caché de pacientes compartida por la aplicación
+     * */
+    public static PacienteCache getInstance() {
+        return INSTANCIA;
+    }
+
+    /*
+     * Método que obtiene un paciente de la caché o, si no está vigente, lo carga con el cargador
+     * @param cedula Parámetro que define la cédula del paciente
+     * @param cargador Parámetro que define cómo leer el paciente de la base de datos
+     * @return Paciente encontrado o null si no existe (las ausencias no se guardan en caché)
+     * */
+    public Paciente obtener(String cedula, Function<String, Paciente> cargador) {
+        if (!habilitada) {
+            return vuelos.obtener(cedula, () -> cargador.apply(cedula));
+        }
+        Segmento segmento = segmento(cedula);
+        long ahora = System.nanoTime();
+        synchronized (segmento) {
+            Entrada entrada = segmento.get(cedula);
+            if (entrada != null) {
+                if (ahora - entrada.cargada < ttlNanos) {
+                    aciertos.increment();
+                    return entrada.paciente;
+                }
+                segmento.remove(cedula);
+                expiraciones.increment();
+            }
+        }
+
+        fallos.increment();
+        long generacionInicial = generacion.get();
+        Paciente paciente = vuelos.obtener(cedula, () -> cargador.apply(cedula));
+        if (paciente != null) {
+            synchronized (segmento) {
+                if (generacion.get() == generacionInicial) {
+                    segmento.put(cedula, new Entrada(paciente, ahora));
+                }
+            }
+        }
+        return paciente;
+    }
+
+    /*
+     * Método que consulta un paciente solo si está vigente en la caché, sin ir a la base de datos
+     * @param cedula Parámetro que define la cédula del paciente
+     * @return Paciente en caché, o null si no está o ya expiró
+     * */
+    public Paciente consultar(String cedula) {
+        if (!habilitada) {
+            return null;
+        }
+        Segmento segmento = segmento(cedula);
+        synchronized (segmento) {
+            Entrada entrada = segmento.get(cedula);
+            if (entrada != null && System.nanoTime() - entrada.cargada < ttlNanos) {
+                aciertos.increment();
+                return entrada.paciente;
+            }
+        }
+        fallos.increment();
+        return null;
+    }
+
+    /*
+     * Método que elimina un paciente de la caché
+     * @param cedula Parámetro que define la cédula del paciente a invalidar
+     * */
+    public void invalidar(String cedula) {
+        if (cedula == null) {
+            return;
+        }
+        // También sin caché: quien lea después de la escritura no debe unirse a una consulta anterior
+        vuelos.olvidar(cedula);
+        if (!habilitada) {
+            return;
+        }
+        generacion.incrementAndGet();
+        invalidacionesTotales.increment();
+        Segmento segmento = segmento(cedula);
+        synchronized (segmento) {
+            segmento.remove(cedula);
+        }
+    }
+
+    @Override
+    public void creado(Paciente paciente) {
+        invalidar(paciente.getCedula());
+    }
+
+    @Override
+    public void actualizado(Paciente paciente) {
+        invalidar(paciente.getCedula());
+    }
+
+    @Override
+    public void parcheado(String cedula, Map<String, Object> cambios) {
+        invalidar(cedula);
+    }
+
+    @Override
+    public void estadoCambiado(String cedula, boolean activo) {
+        invalidar(cedula);
+    }
+
+    @Override
+    public void eliminado(String cedula) {
+        invalidar(cedula);
+    }
+
+    private Segmento segmento(String cedula) {
+        int h = cedula.hashCode();
+        return segmentos[(h ^ (h >>> 16)) & (SEGMENTOS - 1)];
+    }
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    public long getDesalojos() {
+        return desalojos.sum();
+    }
+
+    public long getExpiraciones() {
+        return expiraciones.sum();
+    }
+
+    public long getInvalidaciones() {
+        return invalidacionesTotales.sum();
+    }
+
+    public long getConsultasCompartidas() {
+        return vuelos.getCompartidas();
+    }
+
+    public double getTasaAciertos() {
+        long a = aciertos.sum();
+        long total = a + fallos.sum();
+        return total == 0 ? 0 : (double) a / total;
+    }
+
+    public int getTamano() {
+        int total = 0;
+        for (Segmento segmento : segmentos) {
+            synchronized (segmento) {
+                total += segmento.size();
+            }
+        }
+        return total;
+    }
+
+    /*
+     * Entrada de la caché con el instante de carga para el control del TTL
+     * */
+    private static final class Entrada {
+        final Paciente paciente;
+        final long cargada;
+
+        Entrada(Paciente paciente, long cargada) {
+            this.paciente = paciente;
+            this.cargada = cargada;
+        }
+    }
+
+    /*
+     * Segmento LRU: LinkedHashMap en orden de acceso que desaloja la entrada más antigua
+     * */
+    private final class Segmento extends LinkedHashMap<String, Entrada> {
+        private final int capacidad;
+
+        Segmento(int capacidad) {
+            super(16, 0.75f, true);
+            this.capacidad = capacidad;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entrada> mayor) {
+            if (size() > capacidad) {
+                desalojos.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package cache;
+
+import dao.PacienteDAO;
+import dao.PacienteListener;
+import model.Paciente;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada PaginasCompartidas hace que los listados simultáneos de la
+ *              misma página (mismos filtros, orden, cursor, límite y campos) compartan una sola
+ *              consulta a la base de datos. No guarda páginas: solo agrupa las consultas en curso.
+ *              Cualquier escritura desliga las consultas en curso, porque puede cambiar cualquier página.
+ * */
+
+public final class PaginasCompartidas implements PacienteListener {
+
+    private static final PaginasCompartidas INSTANCIA = new PaginasCompartidas();
+
+    static {
+        PacienteDAO.registrarListener(INSTANCIA);
+    }
+
+    private final VueloUnico<String, List<Paciente>> vuelos = new VueloUnico<>();
+
+    /*
+     * Constructor privado: se usa la instancia única
+     * */
+    private PaginasCompartidas() {
+    }
+
+    /*
+     * Método que obtiene la instancia única
+     * @return Agrupador de listados compartido por la aplicación
+     * */
+    public static PaginasCompartidas getInstance() {
+        return INSTANCIA;
+    }
+
+    /*
+     * Método que obtiene una página, uniéndose a la consulta en curso de la misma página si existe
+     * @param clave Parámetro que define la consulta completa (filtros, orden, cursor, límite y campos)
+     * @param cargador Parámetro que define cómo consultar la página en la base de datos
+     * @return Lista no modificable compartida entre las solicitudes que se unieron
+     * */
+    public List<Paciente> obtener(String clave, Supplier<List<Paciente>> cargador) {
+        return vuelos.obtener(clave, () -> Collections.unmodifiableList(cargador.get()));
+    }
+
+    public long getConsultasCompartidas() {
+        return vuelos.getCompartidas();
+    }
+
+    @Override
+    public void creado(Paciente paciente) {
+        vuelos.olvidarTodo();
+    }
+
+    @Override
+    public void actualizado(Paciente paciente) {
+        vuelos.olvidarTodo();
+    }
+
+    @Override
+    public void parcheado(String cedula, Map<String, Object> cambios) {
+        vuelos.olvidarTodo();
+    }
+
+    @Override
+    public void estadoCambiado(String cedula, boolean activo) {
+        vuelos.olvidarTodo();
+    }
+
+    @Override
+    public void eliminado(String cedula) {
+        vuelos.olvidarTodo();
+    }
+}
@@ -0,0 +1,96 @@
+package cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada VueloUnico agrupa cargas concurrentes de la misma clave:
+ *              el primer hilo ejecuta la carga y los que llegan mientras está en curso esperan y
+ *              reciben el mismo resultado, en lugar de repetir la consulta. No guarda nada después
+ *              de terminar. Tras una escritura se debe llamar a olvidar para que los que lleguen
+ *              después no se unan a una carga iniciada antes de la escritura.
+ * */
+
+public final class VueloUnico<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> enVuelo = new ConcurrentHashMap<>();
+
+    private final LongAdder cargas = new LongAdder();
+    private final LongAdder compartidas = new LongAdder();
+
+    /*
+     * Método que obtiene el resultado de la carga en curso para la clave o, si no hay, la ejecuta
+     * @param clave Parámetro que define la clave de la carga
+     * @param cargador Parámetro que define cómo obtener el valor
+     * @return Valor cargado (el mismo objeto para todos los que compartieron la carga)
+     * */
+    public V obtener(K clave, Supplier<V> cargador) {
+        CompletableFuture<V> propio = new CompletableFuture<>();
+        CompletableFuture<V> existente = enVuelo.putIfAbsent(clave, propio);
+        if (existente != null) {
+            compartidas.increment();
+            return esperar(existente);
+        }
+
+        cargas.increment();
+        try {
+            V valor = cargador.get();
+            propio.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error e) {
+            propio.completeExceptionally(e);
+            throw e;
+        } finally {
+            enVuelo.remove(clave, propio);
+        }
+    }
+
+    /*
+     * Método que desliga la carga en curso de una clave: los que ya esperan reciben su resultado,
+     * pero los que lleguen después inician una carga nueva
+     * @param clave Parámetro que define la clave escrita
+     * */
+    public void olvidar(K clave) {
+        enVuelo.remove(clave);
+    }
+
+    /*
+     * Método que desliga todas las cargas en curso
+     * */
+    public void olvidarTodo() {
+        enVuelo.clear();
+    }
+
+    public long getCargas() {
+        return cargas.sum();
+    }
+
+    public long getCompartidas() {
+        return compartidas.sum();
+    }
+
+    /*
+     * Método privado que espera el resultado de otro hilo y relanza su error sin envolverlo
+     * */
+    private static <V> V esperar(CompletableFuture<V> carga) {
+        try {
+            return carga.join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            if (causa instanceof Error) {
+                throw (Error) causa;
+            }
+            throw e;
+        }
+    }
+}
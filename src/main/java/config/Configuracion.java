@@ -0,0 +1,96 @@
+package config;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada Configuracion centraliza la lectura de los parámetros
+ *              ajustables de la aplicación. Los valores se leen de propiedades del sistema
+ *              (por ejemplo -Dhospital.datasource.jndi=java:/MySqlDS en el servidor) y, si no
+ *              existen o no son válidos, se usa el valor por defecto indicado.
+ * */
+
+public final class Configuracion {
+
+    /*
+     * Constructor privado: clase de utilidades estáticas
+     * */
+    private Configuracion() {
+    }
+
+    /*
+     * Método que obtiene un parámetro de texto
+     * @param clave Parámetro que define el nombre de la propiedad
+     * @param porDefecto Parámetro que define el valor a usar si la propiedad no existe
+     * @return Valor configurado o el valor por defecto
+     * */
+    public static String texto(String clave, String porDefecto) {
+        String valor = System.getProperty(clave);
+        return (valor == null || valor.trim().isEmpty()) ? porDefecto : valor.trim();
+    }
+
+    /*
+     * Método que obtiene un parámetro entero
+     * @param clave Parámetro que define el nombre de la propiedad
+     * @param porDefecto Parámetro que define el valor a usar si la propiedad no existe o no es un número
+     * @return Valor configurado o el valor por defecto
+     * */
+    public static int entero(String clave, int porDefecto) {
+        String valor = System.getProperty(clave);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            return porDefecto;
+        }
+    }
+
+    /*
+     * Método que obtiene un parámetro entero largo
+     * @param clave Parámetro que define el nombre de la propiedad
+     * @param porDefecto Parámetro que define el valor a usar si la propiedad no existe o no es un número
+     * @return Valor configurado o el valor por defecto
+     * */
+    public static long largo(String clave, long porDefecto) {
+        String valor = System.getProperty(clave);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Long.parseLong(valor.trim());
+        } catch (NumberFormatException e) {
+            return porDefecto;
+        }
+    }
+
+    /*
+     * Método que obtiene un parámetro decimal
+     * @param clave Parámetro que define el nombre de la propiedad
+     * @param porDefecto Parámetro que define el valor a usar si la propiedad no existe o no es un número
+     * @return Valor configurado o el valor por defecto
+     * */
+    public static double decimal(String clave, double porDefecto) {
+        String valor = System.getProperty(clave);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Double.parseDouble(valor.trim());
+        } catch (NumberFormatException e) {
+            return porDefecto;
+        }
+    }
+
+    /*
+     * Método que obtiene un parámetro booleano
+     * @param clave Parámetro que define el nombre de la propiedad
+     * @param porDefecto Parámetro que define el valor a usar si la propiedad no existe
+     * @return Valor configurado o el valor por defecto
+     * */
+    public static boolean booleano(String clave, boolean porDefecto) {
+        String valor = System.getProperty(clave);
+        return (valor == null) ? porDefecto : Boolean.parseBoolean(valor.trim());
+    }
+}
@@ -0,0 +1,121 @@
+package config;
+
+import busqueda.FiltroCedulas;
+import busqueda.IndiceNombres;
+import estadisticas.EstadisticasPacientes;
+import eventos.CanalCambios;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada InicializadorAplicacion se ejecuta al desplegar la
+ *              aplicación y arranca en segundo plano las tareas que cargan las estructuras en
+ *              memoria (índice de nombres, estadísticas, filtro de cédulas), para no retrasar el
+ *              despliegue, y las tareas periódicas que las reconcilian con la base de datos.
+ * */
+
+@WebListener
+public class InicializadorAplicacion implements ServletContextListener {
+
+    // Cada cuánto se vuelven a calcular las estadísticas desde la base de datos
+    private static final long RECONCILIACION_SEGUNDOS =
+            Configuracion.largo("hospital.stats.reconciliacionSegundos", 300);
+
+    // Cada cuánto se reconstruye el filtro de cédulas para olvidar las eliminadas
+    private static final long FILTRO_SEGUNDOS = Configuracion.largo("hospital.filtro.reconstruccionSegundos", 3600);
+
+    // Espera inicial y máxima entre intentos de cargar el índice de nombres si la base no responde
+    private static final long INDICE_REINTENTO_SEGUNDOS = 5;
+    private static final long INDICE_REINTENTO_MAXIMO_SEGUNDOS =
+            Configuracion.largo("hospital.busqueda.reintentoMaximoSegundos", 300);
+
+    // Cada cuánto se envía un comentario a los clientes SSE para mantener la conexión
+    private static final long LATIDO_SEGUNDOS = Configuracion.largo("hospital.cambios.latidoSegundos", 25);
+
+    private ScheduledExecutorService tareas;
+
+    // Hilo aparte para el latido SSE: los recorridos de tareas pueden durar minutos en tablas grandes
+    private ScheduledExecutorService latidos;
+
+    /*
+     * Método que se invoca al iniciar la aplicación
+     * @param sce Parámetro que define el evento de inicio del contexto web
+     * */
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        tareas = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "hospital-tareas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        tareas.execute(() -> construirIndice(INDICE_REINTENTO_SEGUNDOS));
+        tareas.execute(() -> EstadisticasPacientes.getInstance().reconstruir());
+        tareas.execute(() -> FiltroCedulas.getInstance().construir());
+        if (RECONCILIACION_SEGUNDOS > 0) {
+            tareas.scheduleWithFixedDelay(() -> EstadisticasPacientes.getInstance().reconstruir(),
+                    RECONCILIACION_SEGUNDOS, RECONCILIACION_SEGUNDOS, TimeUnit.SECONDS);
+        }
+        if (FILTRO_SEGUNDOS > 0) {
+            tareas.scheduleWithFixedDelay(() -> FiltroCedulas.getInstance().construir(),
+                    FILTRO_SEGUNDOS, FILTRO_SEGUNDOS, TimeUnit.SECONDS);
+        }
+        // Registra el canal desde el arranque para que el buffer de reconexión guarde todos los cambios
+        CanalCambios canal = CanalCambios.getInstance();
+        if (LATIDO_SEGUNDOS > 0) {
+            latidos = Executors.newSingleThreadScheduledExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, "hospital-latido");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            latidos.scheduleWithFixedDelay(canal::latido,
+                    LATIDO_SEGUNDOS, LATIDO_SEGUNDOS, TimeUnit.SECONDS);
+        }
+    }
+
+    /*
+     * Método que se invoca al detener la aplicación
+     * @param sce Parámetro que define el evento de destrucción del contexto web
+     * */
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        detener(latidos);
+        detener(tareas);
+    }
+
+    /*
+     * Método privado que carga el índice de nombres y, si no quedó listo (por ejemplo porque la
+     * base de datos no respondía al desplegar), vuelve a intentarlo duplicando la espera hasta
+     * el máximo configurado
+     * @param esperaSegundos Parámetro que define la espera antes del próximo intento
+     * */
+    private void construirIndice(long esperaSegundos) {
+        IndiceNombres indice = IndiceNombres.getInstance();
+        indice.construir();
+        if (!indice.isListo() && !tareas.isShutdown()) {
+            long espera = Math.min(esperaSegundos, Math.max(INDICE_REINTENTO_MAXIMO_SEGUNDOS, 1));
+            tareas.schedule(() -> construirIndice(espera * 2), espera, TimeUnit.SECONDS);
+        }
+    }
+
+    /*
+     * Método privado que detiene un planificador esperando a lo sumo unos segundos
+     * @param planificador Parámetro que define el planificador a detener, puede ser null
+     * */
+    private static void detener(ScheduledExecutorService planificador) {
+        if (planificador != null) {
+            planificador.shutdownNow();
+            try {
+                planificador.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package dao;
+
+import model.CamposPaciente;
+import model.Paciente;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada ConsultaPacientes arma la consulta del listado con filtros
+ *              (activo, rango de edad), orden y cursor. Los filtros se traducen a SQL con parámetros,
+ *              nunca concatenando valores, y el texto de la sentencia se guarda por forma (qué filtros
+ *              hay, columnas, orden y dirección), de modo que el driver y MySQL reciben siempre las
+ *              mismas pocas sentencias y pueden reutilizar su preparación.
+ * */
+
+public final class ConsultaPacientes {
+
+    // Sentencia SQL por forma de consulta (ver forma)
+    private static final Map<Integer, String> SQL_POR_FORMA = new ConcurrentHashMap<>();
+
+    private static final int LONGITUD_CEDULA = 10;
+    private static final char SEPARADOR_CURSOR = '|';
+
+    private Boolean activo;
+    private Integer edadMin;
+    private Integer edadMax;
+    private OrdenPacientes orden = OrdenPacientes.CEDULA;
+    private boolean descendente;
+    private int campos = CamposPaciente.TODOS;
+    private int limite;
+    private String cursor;
+    private String cedulaCursor;
+    private Object valorCursor;
+
+    public ConsultaPacientes activo(Boolean activo) {
+        this.activo = activo;
+        return this;
+    }
+
+    /*
+     * Método que fija el rango de edad, ambos extremos incluidos
+     * @param edadMin Parámetro que define la edad mínima, null sin mínimo
+     * @param edadMax Parámetro que define la edad máxima, null sin máximo
+     * @return La misma consulta
+     * @throws IllegalArgumentException Si alguna edad es negativa o el mínimo supera al máximo
+     * */
+    public ConsultaPacientes edad(Integer edadMin, Integer edadMax) {
+        if ((edadMin != null && edadMin < 0) || (edadMax != null && edadMax < 0)) {
+            throw new IllegalArgumentException("La edad no puede ser negativa");
+        }
+        if (edadMin != null && edadMax != null && edadMin > edadMax) {
+            throw new IllegalArgumentException("edadMin no puede ser mayor que edadMax");
+        }
+        this.edadMin = edadMin;
+        this.edadMax = edadMax;
+        return this;
+    }
+
+    public ConsultaPacientes orden(OrdenPacientes orden, boolean descendente) {
+        this.orden = orden;
+        this.descendente = descendente;
+        return this;
+    }
+
+    public ConsultaPacientes campos(int campos) {
+        this.campos = campos | CamposPaciente.CEDULA;
+        return this;
+    }
+
+    public ConsultaPacientes limite(int limite) {
+        this.limite = limite;
+        return this;
+    }
+
+    /*
+     * Método que fija el cursor de la página anterior. Con el orden por cédula el cursor es la
+     * cédula tal cual (el formato de siempre); con otro orden es valor|cédula en Base64 URL-safe.
+     * Se debe llamar después de orden, porque el formato depende de él.
+     * @param cursor Parámetro que define el cursor recibido en ?after=, null para la primera página
+     * @return La misma consulta
+     * @throws IllegalArgumentException Si el cursor no tiene el formato del orden pedido
+     * */
+    public ConsultaPacientes despuesDe(String cursor) {
+        if (cursor == null) {
+            this.cursor = null;
+            this.cedulaCursor = null;
+            this.valorCursor = null;
+            return this;
+        }
+        if (orden == OrdenPacientes.CEDULA) {
+            cedulaCursor = validarCedula(cursor);
+            valorCursor = cedulaCursor;
+        } else {
+            String texto;
+            try {
+                texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Cursor inválido", e);
+            }
+            // La cédula no contiene el separador; el valor (ej. un nombre) sí podría
+            int separador = texto.lastIndexOf(SEPARADOR_CURSOR);
+            if (separador < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            valorCursor = orden.convertir(texto.substring(0, separador));
+            cedulaCursor = validarCedula(texto.substring(separador + 1));
+        }
+        this.cursor = cursor;
+        return this;
+    }
+
+    /*
+     * Método que arma el cursor que continúa después de un paciente de esta consulta
+     * @param ultimo Parámetro que define el último paciente de la página
+     * @return Cursor para ?after= de la página siguiente
+     * */
+    public String cursor(Paciente ultimo) {
+        if (orden == OrdenPacientes.CEDULA) {
+            return ultimo.getCedula();
+        }
+        String texto = orden.valor(ultimo) + SEPARADOR_CURSOR + ultimo.getCedula();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /*
+     * Método que obtiene una clave que identifica la consulta completa, para agrupar
+     * consultas simultáneas iguales
+     * @return Clave con la forma y los valores de los parámetros
+     * */
+    public String clave() {
+        return forma() + "|" + activo + '|' + edadMin + '|' + edadMax + '|' + limite + '|' + cursor;
+    }
+
+    public int getCampos() {
+        return campos;
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    /*
+     * Método que obtiene la máscara de columnas que lee la sentencia: las pedidas más la del orden,
+     * que hace falta para armar el cursor de la página siguiente
+     * */
+    int columnas() {
+        return campos | orden.getCampo();
+    }
+
+    /*
+     * Método que obtiene la sentencia SQL de esta forma de consulta, armándola la primera vez
+     * @return Sentencia SELECT con parámetros
+     * */
+    String sql() {
+        return SQL_POR_FORMA.computeIfAbsent(forma(), forma -> armarSql());
+    }
+
+    /*
+     * Método que asigna los parámetros en el mismo orden en que armarSql los escribe
+     * @param pstmt Parámetro que define la sentencia preparada con sql()
+     * @throws SQLException Si falla la asignación de algún parámetro
+     * */
+    void enlazar(PreparedStatement pstmt) throws SQLException {
+        int indice = 1;
+        if (activo != null) {
+            pstmt.setBoolean(indice++, activo);
+        }
+        if (edadMin != null) {
+            pstmt.setInt(indice++, edadMin);
+        }
+        if (edadMax != null) {
+            pstmt.setInt(indice++, edadMax);
+        }
+        if (cedulaCursor != null) {
+            if (orden == OrdenPacientes.CEDULA) {
+                pstmt.setString(indice++, cedulaCursor);
+            } else {
+                orden.enlazar(pstmt, indice++, valorCursor);
+                orden.enlazar(pstmt, indice++, valorCursor);
+                pstmt.setString(indice++, cedulaCursor);
+            }
+        }
+        pstmt.setInt(indice, limite);
+    }
+
+    /*
+     * Método privado que resume en un entero todo lo que cambia el texto de la sentencia
+     * */
+    private int forma() {
+        int forma = columnas();
+        forma = forma << 1 | (activo != null ? 1 : 0);
+        forma = forma << 1 | (edadMin != null ? 1 : 0);
+        forma = forma << 1 | (edadMax != null ? 1 : 0);
+        forma = forma << 1 | (cedulaCursor != null ? 1 : 0);
+        forma = forma << 1 | (descendente ? 1 : 0);
+        return forma << 2 | orden.ordinal();
+    }
+
+    /*
+     * Método privado que escribe la sentencia de la forma actual
+     * */
+    private String armarSql() {
+        String columna = orden.getColumna();
+        String mayor = descendente ? " < ?" : " > ?";
+        String direccion = descendente ? " DESC" : "";
+
+        StringBuilder sql = new StringBuilder(160)
+                .append("SELECT ").append(CamposPaciente.columnas(columnas())).append(" FROM paciente");
+        String conector = " WHERE ";
+        if (activo != null) {
+            sql.append(conector).append("activo = ?");
+            conector = " AND ";
+        }
+        if (edadMin != null) {
+            sql.append(conector).append("edad >= ?");
+            conector = " AND ";
+        }
+        if (edadMax != null) {
+            sql.append(conector).append("edad <= ?");
+            conector = " AND ";
+        }
+        if (cedulaCursor != null) {
+            if (orden == OrdenPacientes.CEDULA) {
+                sql.append(conector).append("cedula").append(mayor);
+            } else {
+                // La primera condición es un rango simple sobre la columna de orden, que MySQL
+                // puede usar en el índice; la segunda descarta los empates ya entregados
+                sql.append(conector).append(columna).append(descendente ? " <= ?" : " >= ?")
+                        .append(" AND (").append(columna).append(mayor)
+                        .append(" OR cedula").append(mayor).append(')');
+            }
+        }
+        sql.append(" ORDER BY ").append(columna).append(direccion);
+        if (orden != OrdenPacientes.CEDULA) {
+            sql.append(", cedula").append(direccion);
+        }
+        return sql.append(" LIMIT ?").toString();
+    }
+
+    private static String validarCedula(String cedula) {
+        if (cedula.isEmpty() || cedula.length() > LONGITUD_CEDULA) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        return cedula;
+    }
+}
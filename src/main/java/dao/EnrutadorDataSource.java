@@ -0,0 +1,366 @@
+package dao;
+
+import config.Configuracion;
+import model.Paciente;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada EnrutadorDataSource decide de qué DataSource sale cada
+ *              conexión del DAO. Las escrituras van siempre al primario; las lecturas se reparten
+ *              por turnos entre las réplicas configuradas. Una réplica que no entrega conexión se
+ *              suspende durante un tiempo de espera (las lecturas vuelven al primario) y luego un
+ *              solo hilo la prueba de nuevo. Para leer lo propio escrito, las cédulas escritas hace
+ *              menos de una ventana (el retraso de replicación tolerado) se leen del primario.
+ *              Sin réplicas configuradas todo va al primario, como antes.
+ * */
+
+public final class EnrutadorDataSource {
+
+    // Nombres JNDI: el primario de siempre y las réplicas separadas por comas (vacío = sin réplicas)
+    private static final String JNDI_PRIMARIO = Configuracion.texto("hospital.datasource.jndi", "java:/MySqlDS");
+    private static final String JNDI_REPLICAS = Configuracion.texto("hospital.datasource.replicas", "");
+
+    // Tiempo que una réplica con fallas queda fuera de la rotación
+    private static final long ESPERA_MS = Configuracion.largo("hospital.datasource.replicas.esperaMs", 30_000);
+
+    // Tiempo después de una escritura durante el cual esa cédula se lee del primario
+    private static final long VENTANA_MS = Configuracion.largo("hospital.datasource.leerPrimarioMs", 5_000);
+
+    // Tamaño a partir del cual se limpian las escrituras recientes vencidas
+    private static final int LIMPIAR_DESDE = 4096;
+
+    private static volatile EnrutadorDataSource instancia;
+
+    static {
+        // Un único listener reenvía los avisos al enrutador vigente (instalar puede reemplazarlo)
+        PacienteDAO.registrarListener(new PacienteListener() {
+            @Override
+            public void creado(Paciente paciente) {
+                avisar(paciente.getCedula());
+            }
+
+            @Override
+            public void actualizado(Paciente paciente) {
+                avisar(paciente.getCedula());
+            }
+
+            @Override
+            public void parcheado(String cedula, Map<String, Object> cambios) {
+                avisar(cedula);
+            }
+
+            @Override
+            public void estadoCambiado(String cedula, boolean activo) {
+                avisar(cedula);
+            }
+
+            @Override
+            public void eliminado(String cedula) {
+                avisar(cedula);
+            }
+        });
+    }
+
+    private final DataSource primario;
+    private final Replica[] replicas;
+    private final long esperaNanos;
+    private final long ventanaNanos;
+
+    private final AtomicInteger turno = new AtomicInteger();
+    private final ConcurrentMap<String, Long> escriturasRecientes = new ConcurrentHashMap<>();
+    private final AtomicLong proximaLimpieza = new AtomicLong(System.nanoTime());
+
+    private final LongAdder lecturasReplica = new LongAdder();
+    private final LongAdder lecturasPrimario = new LongAdder();
+    private final LongAdder fallosReplica = new LongAdder();
+
+    /*
+     * Constructor con los DataSource ya resueltos; permite usar dos bases locales o DataSource
+     * de prueba en memoria (ver instalar)
+     * @param primario Parámetro que define el DataSource que recibe las escrituras
+     * @param replicas Parámetro que define los DataSource de solo lectura, puede estar vacía
+     * @param esperaMs Parámetro que define el tiempo que una réplica con fallas queda fuera de la rotación
+     * @param ventanaMs Parámetro que define el tiempo que una cédula escrita se sigue leyendo del primario
+     * */
+    public EnrutadorDataSource(DataSource primario, List<DataSource> replicas, long esperaMs, long ventanaMs) {
+        this.primario = primario;
+        this.replicas = new Replica[replicas.size()];
+        for (int i = 0; i < this.replicas.length; i++) {
+            this.replicas[i] = new Replica(replicas.get(i));
+        }
+        this.esperaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMs);
+        this.ventanaNanos = TimeUnit.MILLISECONDS.toNanos(ventanaMs);
+    }
+
+    /*
+     * Método que obtiene el enrutador, resolviendo por JNDI el primario y las réplicas la primera vez.
+     * Una réplica que no se puede resolver se informa y se omite.
+     * @return Enrutador compartido por todas las instancias del DAO
+     * @throws SQLException Si no se puede encontrar el DataSource primario
+     * */
+    public static EnrutadorDataSource getInstance() throws SQLException {
+        EnrutadorDataSource actual = instancia;
+        if (actual == null) {
+            synchronized (EnrutadorDataSource.class) {
+                actual = instancia;
+                if (actual == null) {
+                    DataSource primario = buscar(JNDI_PRIMARIO);
+                    List<DataSource> replicas = new ArrayList<>();
+                    for (String nombre : JNDI_REPLICAS.split(",")) {
+                        if (nombre.trim().isEmpty()) {
+                            continue;
+                        }
+                        try {
+                            replicas.add(buscar(nombre.trim()));
+                        } catch (SQLException e) {
+                            e.printStackTrace();
+                        }
+                    }
+                    actual = new EnrutadorDataSource(primario, replicas, ESPERA_MS, VENTANA_MS);
+                    instancia = actual;
+                }
+            }
+        }
+        return actual;
+    }
+
+    /*
+     * Método que reemplaza el enrutador compartido (por ejemplo, con DataSource de prueba)
+     * @param enrutador Parámetro que define el enrutador a usar desde ahora, null para volver a JNDI
+     * */
+    public static void instalar(EnrutadorDataSource enrutador) {
+        instancia = enrutador;
+    }
+
+    /*
+     * Método que obtiene el enrutador si ya fue creado, sin resolver nada por JNDI (para las métricas)
+     * @return Enrutador vigente, o null si el DAO todavía no se usó
+     * */
+    public static EnrutadorDataSource actual() {
+        return instancia;
+    }
+
+    /*
+     * Método que obtiene una conexión del primario
+     * @param metodo Parámetro que define el método del DAO que usará la conexión (para las métricas)
+     * @return Conexión instrumentada del primario
+     * @throws SQLException Si el primario no entrega una conexión
+     * */
+    Connection escritura(String metodo) throws SQLException {
+        return MonitorConexiones.obtener(primario, metodo);
+    }
+
+    /*
+     * Método que obtiene una conexión para una lectura: de la siguiente réplica disponible, o del
+     * primario si no hay réplicas sanas o la cédula se escribió hace poco
+     * @param metodo Parámetro que define el método del DAO que usará la conexión (para las métricas)
+     * @param cedula Parámetro que define la cédula leída, null si la lectura no es de un paciente
+     * @return Conexión instrumentada de una réplica o del primario
+     * @throws SQLException Si tampoco el primario entrega una conexión
+     * */
+    Connection lectura(String metodo, String cedula) throws SQLException {
+        return lectura(metodo, cedula != null && escritaRecientemente(cedula));
+    }
+
+    /*
+     * Método que obtiene una conexión para una lectura de varias cédulas: del primario si alguna
+     * se escribió hace poco, y si no de la siguiente réplica disponible
+     * @param metodo Parámetro que define el método del DAO que usará la conexión (para las métricas)
+     * @param cedulas Parámetro que define las cédulas leídas
+     * @return Conexión instrumentada de una réplica o del primario
+     * @throws SQLException Si tampoco el primario entrega una conexión
+     * */
+    Connection lectura(String metodo, Collection<String> cedulas) throws SQLException {
+        boolean reciente = false;
+        if (replicas.length > 0 && !escriturasRecientes.isEmpty()) {
+            for (String cedula : cedulas) {
+                if (escritaRecientemente(cedula)) {
+                    reciente = true;
+                    break;
+                }
+            }
+        }
+        return lectura(metodo, reciente);
+    }
+
+    /*
+     * Método privado que obtiene la conexión de una lectura
+     * @param metodo Parámetro que define el método del DAO que usará la conexión (para las métricas)
+     * @param leerPrimario Parámetro que define si la lectura debe ver las escrituras recientes
+     * @return Conexión instrumentada de una réplica o del primario
+     * @throws SQLException Si tampoco el primario entrega una conexión
+     * */
+    private Connection lectura(String metodo, boolean leerPrimario) throws SQLException {
+        if (replicas.length > 0 && !leerPrimario) {
+            int inicio = turno.getAndIncrement();
+            for (int i = 0; i < replicas.length; i++) {
+                Replica replica = replicas[Math.floorMod(inicio + i, replicas.length)];
+                long ahora = System.nanoTime();
+                if (!replica.tomar(ahora, esperaNanos)) {
+                    continue;
+                }
+                try {
+                    Connection conexion = MonitorConexiones.obtener(replica.dataSource, metodo);
+                    replica.sana();
+                    lecturasReplica.increment();
+                    return conexion;
+                } catch (SQLException e) {
+                    replica.suspender(ahora + esperaNanos);
+                    fallosReplica.increment();
+                }
+            }
+        }
+        lecturasPrimario.increment();
+        return MonitorConexiones.obtener(primario, metodo);
+    }
+
+    /*
+     * Método que anota una escritura para leer esa cédula del primario durante la ventana
+     * @param cedula Parámetro que define la cédula escrita
+     * */
+    void registrarEscritura(String cedula) {
+        if (replicas.length == 0 || cedula == null) {
+            return;
+        }
+        long ahora = System.nanoTime();
+        escriturasRecientes.put(cedula, ahora + ventanaNanos);
+
+        // Limpieza de vencidas a lo sumo una vez por ventana, y solo si el mapa creció
+        long proxima = proximaLimpieza.get();
+        if (escriturasRecientes.size() > LIMPIAR_DESDE && ahora - proxima >= 0
+                && proximaLimpieza.compareAndSet(proxima, ahora + ventanaNanos)) {
+            escriturasRecientes.values().removeIf(hasta -> ahora - hasta >= 0);
+        }
+    }
+
+    /*
+     * Método que obtiene el número de lecturas atendidas por una réplica
+     * @return Total de lecturas enviadas a réplicas
+     * */
+    public long getLecturasReplica() {
+        return lecturasReplica.sum();
+    }
+
+    /*
+     * Método que obtiene el número de lecturas atendidas por el primario
+     * @return Total de lecturas enviadas al primario
+     * */
+    public long getLecturasPrimario() {
+        return lecturasPrimario.sum();
+    }
+
+    /*
+     * Método que obtiene el número de veces que una réplica no entregó conexión
+     * @return Total de fallos de réplicas
+     * */
+    public long getFallosReplica() {
+        return fallosReplica.sum();
+    }
+
+    /*
+     * Método que obtiene el número de réplicas configuradas
+     * @return Réplicas en la rotación, sanas o suspendidas
+     * */
+    public int getReplicas() {
+        return replicas.length;
+    }
+
+    /*
+     * Método que obtiene el número de réplicas que no están suspendidas
+     * @return Réplicas sanas
+     * */
+    public int getReplicasSanas() {
+        int sanas = 0;
+        for (Replica replica : replicas) {
+            if (replica.suspendidaHasta.get() == 0) {
+                sanas++;
+            }
+        }
+        return sanas;
+    }
+
+    /*
+     * Método privado que indica si una cédula se escribió dentro de la ventana
+     * @param cedula Parámetro que define la cédula a leer
+     * @return true si la lectura debe ir al primario
+     * */
+    private boolean escritaRecientemente(String cedula) {
+        Long hasta = escriturasRecientes.get(cedula);
+        if (hasta == null) {
+            return false;
+        }
+        if (System.nanoTime() - hasta >= 0) {
+            escriturasRecientes.remove(cedula, hasta);
+            return false;
+        }
+        return true;
+    }
+
+    private static void avisar(String cedula) {
+        EnrutadorDataSource actual = instancia;
+        if (actual != null) {
+            actual.registrarEscritura(cedula);
+        }
+    }
+
+    private static DataSource buscar(String nombre) throws SQLException {
+        try {
+            return (DataSource) new InitialContext().lookup(nombre);
+        } catch (NamingException | ClassCastException e) {
+            throw new SQLException("No se pudo obtener el DataSource " + nombre, e);
+        }
+    }
+
+    /*
+     * Clase interna con el estado de salud de una réplica: 0 si está sana, o el instante
+     * (System.nanoTime) hasta el cual queda suspendida
+     * */
+    private static final class Replica {
+        private final DataSource dataSource;
+        private final AtomicLong suspendidaHasta = new AtomicLong();
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        /*
+         * Método que indica si se puede pedir una conexión a la réplica. Vencida la suspensión,
+         * solo el hilo que gana el compareAndSet la prueba; los demás siguen en el primario.
+         * */
+        private boolean tomar(long ahora, long esperaNanos) {
+            long hasta = suspendidaHasta.get();
+            if (hasta == 0) {
+                return true;
+            }
+            return ahora - hasta >= 0 && suspendidaHasta.compareAndSet(hasta, ahora + esperaNanos);
+        }
+
+        private void sana() {
+            if (suspendidaHasta.get() != 0) {
+                suspendidaHasta.set(0);
+            }
+        }
+
+        private void suspender(long hasta) {
+            // 0 significa "sana": se evita guardarlo como instante de suspensión
+            suspendidaHasta.set(hasta == 0 ? 1 : hasta);
+        }
+    }
+}
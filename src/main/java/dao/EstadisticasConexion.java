@@ -0,0 +1,104 @@
+package dao;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada EstadisticasConexion acumula, para un método del DAO,
+ *              el tiempo de espera para obtener conexiones del pool, el tiempo que se retienen
+ *              y cuántas están prestadas al mismo tiempo. Los contadores son libres de bloqueos.
+ * */
+
+public class EstadisticasConexion {
+    private final String metodo;
+    private final LongAdder arriendos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder esperaTotalNanos = new LongAdder();
+    private final LongAdder retencionTotalNanos = new LongAdder();
+    private final AtomicLong esperaMaximaNanos = new AtomicLong();
+    private final AtomicLong retencionMaximaNanos = new AtomicLong();
+    private final AtomicInteger activas = new AtomicInteger();
+    private final AtomicInteger picoActivas = new AtomicInteger();
+
+    /*
+     * Constructor que crea las estadísticas vacías de un método
+     * @param metodo Parámetro que define el nombre del método del DAO
+     * */
+    public EstadisticasConexion(String metodo) {
+        this.metodo = metodo;
+    }
+
+    /*
+     * Método que registra una conexión obtenida del pool
+     * @param esperaNanos Parámetro que define cuánto tardó el pool en entregar la conexión
+     * */
+    void registrarArriendo(long esperaNanos) {
+        arriendos.increment();
+        esperaTotalNanos.add(esperaNanos);
+        esperaMaximaNanos.accumulateAndGet(esperaNanos, Math::max);
+        int actuales = activas.incrementAndGet();
+        picoActivas.accumulateAndGet(actuales, Math::max);
+    }
+
+    /*
+     * Método que registra un intento fallido de obtener conexión
+     * @param esperaNanos Parámetro que define cuánto se esperó antes del fallo
+     * */
+    void registrarFallo(long esperaNanos) {
+        fallos.increment();
+        esperaTotalNanos.add(esperaNanos);
+        esperaMaximaNanos.accumulateAndGet(esperaNanos, Math::max);
+    }
+
+    /*
+     * Método que registra la devolución de una conexión al pool
+     * @param retencionNanos Parámetro que define cuánto tiempo estuvo prestada la conexión
+     * */
+    void registrarDevolucion(long retencionNanos) {
+        activas.decrementAndGet();
+        retencionTotalNanos.add(retencionNanos);
+        retencionMaximaNanos.accumulateAndGet(retencionNanos, Math::max);
+    }
+
+    public String getMetodo() {
+        return metodo;
+    }
+
+    public long getArriendos() {
+        return arriendos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    public int getActivas() {
+        return activas.get();
+    }
+
+    public int getPicoActivas() {
+        return picoActivas.get();
+    }
+
+    public double getEsperaPromedioMs() {
+        long total = arriendos.sum() + fallos.sum();
+        return total == 0 ? 0 : esperaTotalNanos.sum() / (total * 1_000_000.0);
+    }
+
+    public double getEsperaMaximaMs() {
+        return esperaMaximaNanos.get() / 1_000_000.0;
+    }
+
+    public double getRetencionPromedioMs() {
+        long devueltas = arriendos.sum() - activas.get();
+        return devueltas <= 0 ? 0 : retencionTotalNanos.sum() / (devueltas * 1_000_000.0);
+    }
+
+    public double getRetencionMaximaMs() {
+        return retencionMaximaNanos.get() / 1_000_000.0;
+    }
+}
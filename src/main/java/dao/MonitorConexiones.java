@@ -0,0 +1,125 @@
+package dao;
+
+import metricas.RegistroMetricas;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada MonitorConexiones entrega conexiones del DataSource
+ *              envueltas en un proxy que mide, por método del DAO, el tiempo de espera del
+ *              pool, el tiempo de retención hasta close() y los préstamos concurrentes.
+ *              Permite distinguir un pool agotado (espera alta) de consultas lentas (retención alta).
+ *              La duración total (espera + retención) se registra como el tiempo del método del DAO.
+ * */
+
+public final class MonitorConexiones {
+
+    private static final ConcurrentMap<String, EstadisticasConexion> POR_METODO = new ConcurrentHashMap<>();
+    private static final AtomicInteger ACTIVAS_TOTALES = new AtomicInteger();
+
+    /*
+     * Constructor privado: clase de utilidades estáticas
+     * */
+    private MonitorConexiones() {
+    }
+
+    /*
+     * Método que obtiene una conexión instrumentada del DataSource
+     * @param dataSource Parámetro que define el pool del cual obtener la conexión
+     * @param metodo Parámetro que define el método del DAO que solicita la conexión
+     * @return Conexión que registra su devolución al cerrarse
+     * @throws SQLException Si el pool no puede entregar una conexión
+     * */
+    static Connection obtener(DataSource dataSource, String metodo) throws SQLException {
+        EstadisticasConexion estadisticas = POR_METODO.computeIfAbsent(metodo, EstadisticasConexion::new);
+        long inicio = System.nanoTime();
+        Connection conexion;
+        try {
+            conexion = dataSource.getConnection();
+        } catch (SQLException e) {
+            estadisticas.registrarFallo(System.nanoTime() - inicio);
+            RegistroMetricas.registrarDao(metodo, System.nanoTime() - inicio);
+            throw e;
+        }
+        long obtenida = System.nanoTime();
+        estadisticas.registrarArriendo(obtenida - inicio);
+        ACTIVAS_TOTALES.incrementAndGet();
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConexionMedida(conexion, estadisticas, metodo, inicio, obtenida));
+    }
+
+    /*
+     * Método que devuelve una copia de las estadísticas de todos los métodos
+     * @return Lista de estadísticas por método del DAO
+     * */
+    public static List<EstadisticasConexion> estadisticas() {
+        Collection<EstadisticasConexion> valores = POR_METODO.values();
+        return new ArrayList<>(valores);
+    }
+
+    /*
+     * Método que obtiene el número de conexiones prestadas en este momento por todo el DAO
+     * @return Conexiones activas en total
+     * */
+    public static int activasTotales() {
+        return ACTIVAS_TOTALES.get();
+    }
+
+    /*
+     * Manejador del proxy que intercepta close() para registrar el tiempo de retención
+     * */
+    private static final class ConexionMedida implements InvocationHandler {
+        private final Connection conexion;
+        private final EstadisticasConexion estadisticas;
+        private final String metodo;
+        private final long solicitada;
+        private final long obtenida;
+        private final AtomicBoolean cerrada = new AtomicBoolean();
+
+        ConexionMedida(Connection conexion, EstadisticasConexion estadisticas, String metodo,
+                       long solicitada, long obtenida) {
+            this.conexion = conexion;
+            this.estadisticas = estadisticas;
+            this.metodo = metodo;
+            this.solicitada = solicitada;
+            this.obtenida = obtenida;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("close".equals(method.getName()) && cerrada.compareAndSet(false, true)) {
+                try {
+                    conexion.close();
+                } finally {
+                    long ahora = System.nanoTime();
+                    estadisticas.registrarDevolucion(ahora - obtenida);
+                    RegistroMetricas.registrarDao(metodo, ahora - solicitada);
+                    ACTIVAS_TOTALES.decrementAndGet();
+                }
+                return null;
+            }
+            try {
+                return method.invoke(conexion, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package dao;
+
+import model.CamposPaciente;
+import model.Paciente;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta enumeración denominada OrdenPacientes define las columnas por las que se puede
+ *              ordenar el listado (?sort=). Cada orden se completa con la cédula para que sea total
+ *              y sirva de cursor. Por cédula y por nombre MySQL recorre un índice (la clave primaria
+ *              e idx_paciente_nombre, que incluye la cédula); por edad y fecha de creación no hay
+ *              índice y la página se ordena con filesort.
+ * */
+
+public enum OrdenPacientes {
+    CEDULA("cedula", "cedula", CamposPaciente.CEDULA),
+    NOMBRE("nombre", "nombre", CamposPaciente.NOMBRE),
+    EDAD("edad", "edad", CamposPaciente.EDAD),
+    FECHA_CREACION("fechaCreacion", "fecha_creacion", CamposPaciente.FECHA_CREACION);
+
+    private final String nombre;
+    private final String columna;
+    private final int campo;
+
+    OrdenPacientes(String nombre, String columna, int campo) {
+        this.nombre = nombre;
+        this.columna = columna;
+        this.campo = campo;
+    }
+
+    /*
+     * Método que busca un orden por su nombre JSON
+     * @param nombre Parámetro que define el nombre del campo (ej. "nombre")
+     * @return Orden correspondiente, o null si no se puede ordenar por ese campo
+     * */
+    public static OrdenPacientes desde(String nombre) {
+        for (OrdenPacientes orden : values()) {
+            if (orden.nombre.equals(nombre)) {
+                return orden;
+            }
+        }
+        return null;
+    }
+
+    String getColumna() {
+        return columna;
+    }
+
+    int getCampo() {
+        return campo;
+    }
+
+    /*
+     * Método que obtiene el valor de la columna de orden de un paciente, como texto para el cursor
+     * @param paciente Parámetro que define el último paciente de la página
+     * @return Valor de la columna de orden
+     * */
+    String valor(Paciente paciente) {
+        switch (this) {
+            case NOMBRE:
+                return paciente.getNombre();
+            case EDAD:
+                return Integer.toString(paciente.getEdad());
+            case FECHA_CREACION:
+                return paciente.getFechaCreacion().toString();
+            default:
+                return paciente.getCedula();
+        }
+    }
+
+    /*
+     * Método que convierte el valor leído de un cursor al tipo de la columna
+     * @param texto Parámetro que define el valor guardado en el cursor
+     * @return Valor listo para enlazar a la sentencia
+     * @throws IllegalArgumentException Si el texto no es un valor válido de la columna
+     * */
+    Object convertir(String texto) {
+        try {
+            switch (this) {
+                case EDAD:
+                    return Integer.parseInt(texto);
+                case FECHA_CREACION:
+                    return LocalDateTime.parse(texto);
+                default:
+                    return texto;
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    /*
+     * Método que enlaza un valor de la columna de orden a un parámetro de la sentencia
+     * @param pstmt Parámetro que define la sentencia preparada
+     * @param indice Parámetro que define la posición del parámetro
+     * @param valor Parámetro que define el valor obtenido con convertir
+     * @throws SQLException Si falla la asignación del parámetro
+     * */
+    void enlazar(PreparedStatement pstmt, int indice, Object valor) throws SQLException {
+        switch (this) {
+            case EDAD:
+                pstmt.setInt(indice, (Integer) valor);
+                break;
+            case FECHA_CREACION:
+                pstmt.setTimestamp(indice, Timestamp.valueOf((LocalDateTime) valor));
+                break;
+            default:
+                pstmt.setString(indice, (String) valor);
+        }
+    }
+}
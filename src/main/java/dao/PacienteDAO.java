@@ -1,11 +1,19 @@
 package dao;
 
+import config.Configuracion;
+import model.CamposPaciente;
 import model.Paciente;
-import javax.naming.InitialContext;
-import javax.sql.DataSource;
+import java.io.IOException;
 import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /*
  * Author: Mateo Lasso
@@ -17,42 +25,178 @@ import java.util.List;
 
 public class PacienteDAO {
 
+    // Columnas que se leen para construir un Paciente completo (ver mapear)
+    private static final String COLUMNAS =
+            "cedula, nombre, correo, edad, direccion, activo, fecha_creacion, fecha_actualizacion";
+
+    // Sentencia de inserción compartida por el alta individual y la carga masiva.
+    // Las fechas se envían desde la aplicación para conocerlas sin volver a leer la fila.
+    private static final String SQL_INSERTAR =
+            "INSERT INTO paciente (cedula, nombre, correo, edad, direccion, activo, fecha_creacion, fecha_actualizacion) "
+                    + "VALUES (?, ?, ?, ?, ?, TRUE, ?, ?)";
+
+    // Asignación que avanza la versión de la fila (fecha_actualizacion) en toda actualización: al menos
+    // un segundo después de la anterior, con el reloj de MySQL. Todas las escrituras la usan para que
+    // la versión nunca se repita ni retroceda aunque dos cambios caigan en el mismo segundo
+    private static final String AVANZAR_VERSION =
+            "fecha_actualizacion = GREATEST(fecha_actualizacion + INTERVAL 1 SECOND, NOW())";
+
+    // Columnas que acepta una actualización parcial; los nombres se concatenan al SQL, por eso la lista es cerrada
+    private static final Set<String> COLUMNAS_EDITABLES = Set.of("nombre", "correo", "edad", "direccion", "activo");
+
+    // Tamaño máximo y mínimo de un bloque IN (...) de la consulta de varias cédulas. Los bloques
+    // se completan hasta una potencia de dos para que solo existan unas pocas formas de sentencia
+    private static final int BLOQUE_IN_MAXIMO = 128;
+    private static final int BLOQUE_IN_MINIMO = 8;
+
+    // Sentencia SELECT ... IN (?, ...) por tamaño de bloque (índice = log2 del tamaño)
+    private static final String[] SQL_POR_BLOQUE = new String[Integer.numberOfTrailingZeros(BLOQUE_IN_MAXIMO) + 1];
+
+    // Número de filas por lote y transacción en la carga masiva
+    private static final int TAMANO_LOTE = Configuracion.entero("hospital.lote.tamano", 500);
+
+    // Componentes que deben enterarse de las escrituras confirmadas
+    private static final List<PacienteListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    /*
+     * Método que registra un componente para recibir avisos de las escrituras en paciente
+     * @param listener Parámetro que define el componente a notificar
+     * */
+    public static void registrarListener(PacienteListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /*
+     * Método que notifica una escritura a todos los listeners; el fallo de uno no afecta a los demás
+     * @param aviso Parámetro que define la notificación a entregar a cada listener
+     * */
+    private static void notificar(Consumer<PacienteListener> aviso) {
+        for (PacienteListener listener : LISTENERS) {
+            try {
+                aviso.accept(listener);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
     /*
-     * Método que obtiene una conexión a la base de datos usando DataSource
+     * Método que obtiene una conexión del primario, para escrituras y lecturas que deben ver lo último escrito
+     * @param metodo Parámetro que define el método del DAO que usará la conexión (para las métricas)
      * @return Objeto Connection para interactuar con la base de datos
      * @throws SQLException Si ocurre un error al obtener la conexión
      * */
-    private Connection getConnection() throws SQLException {
-        try {
-            InitialContext ctx = new InitialContext();
-            DataSource ds = (DataSource) ctx.lookup("java:/MySqlDS");
-            return ds.getConnection();
-        } catch (Exception e) {
-            throw new SQLException("No se pudo obtener conexión de DataSource", e);
+    private Connection getConnection(String metodo) throws SQLException {
+        return EnrutadorDataSource.getInstance().escritura(metodo);
+    }
+
+    /*
+     * Método que obtiene una conexión para una lectura que no es de un paciente en particular
+     * (listados, búsquedas, exportación), de una réplica si hay alguna disponible
+     * @param metodo Parámetro que define el método del DAO que usará la conexión (para las métricas)
+     * @return Objeto Connection para interactuar con la base de datos
+     * @throws SQLException Si ocurre un error al obtener la conexión
+     * */
+    private Connection getConnectionLectura(String metodo) throws SQLException {
+        return EnrutadorDataSource.getInstance().lectura(metodo, (String) null);
+    }
+
+    /*
+     * Método que obtiene una conexión para una lectura, de una réplica si hay alguna disponible
+     * @param metodo Parámetro que define el método del DAO que usará la conexión (para las métricas)
+     * @param cedula Parámetro que define la cédula leída (se lee del primario si se escribió hace poco)
+     * @return Objeto Connection para interactuar con la base de datos
+     * @throws SQLException Si ocurre un error al obtener la conexión
+     * */
+    private Connection getConnectionLectura(String metodo, String cedula) throws SQLException {
+        return EnrutadorDataSource.getInstance().lectura(metodo, cedula);
+    }
+
+    /*
+     * Método que obtiene una conexión para una lectura de varias cédulas
+     * @param metodo Parámetro que define el método del DAO que usará la conexión (para las métricas)
+     * @param cedulas Parámetro que define las cédulas leídas (se lee del primario si alguna se escribió hace poco)
+     * @return Objeto Connection para interactuar con la base de datos
+     * @throws SQLException Si ocurre un error al obtener la conexión
+     * */
+    private Connection getConnectionLectura(String metodo, List<String> cedulas) throws SQLException {
+        return EnrutadorDataSource.getInstance().lectura(metodo, cedulas);
+    }
+
+    /*
+     * Método que obtiene una página de pacientes ordenada por cédula usando paginación por cursor (keyset)
+     * @param despuesDe Parámetro que define la última cédula de la página anterior, null para la primera página
+     * @param limite Parámetro que define el número máximo de pacientes a devolver
+     * @return Lista de objetos Paciente con a lo sumo limite registros
+     * */
+    public List<Paciente> getPagina(String despuesDe, int limite) {
+        return getPagina(despuesDe, limite, CamposPaciente.TODOS);
+    }
+
+    /*
+     * Método que obtiene una página de pacientes leyendo solo algunas columnas. Con menos columnas
+     * MySQL puede responder desde un índice secundario que las contenga (ej. cedula y nombre
+     * están en idx_paciente_nombre, que guarda la clave primaria) sin leer la fila completa.
+     * @param despuesDe Parámetro que define la última cédula de la página anterior, null para la primera página
+     * @param limite Parámetro que define el número máximo de pacientes a devolver
+     * @param campos Parámetro que define la máscara de CamposPaciente a leer (siempre incluye la cédula)
+     * @return Lista de pacientes con solo los campos pedidos asignados
+     * */
+    public List<Paciente> getPagina(String despuesDe, int limite, int campos) {
+        return buscar(new ConsultaPacientes().campos(campos).limite(limite).despuesDe(despuesDe));
+    }
+
+    /*
+     * Método que obtiene una página del listado con los filtros, el orden y el cursor de una consulta.
+     * La sentencia sale de la caché de ConsultaPacientes según su forma y los valores van como parámetros.
+     * Con el orden por cédula o por nombre, y con el filtro de activo, MySQL recorre la clave primaria,
+     * idx_paciente_nombre o idx_paciente_activo (los índices secundarios guardan la cédula, que completa
+     * el orden); la edad no tiene índice y se filtra sobre la fila.
+     * @param consulta Parámetro que define los filtros, el orden, el cursor, el límite y los campos
+     * @return Lista de pacientes con los campos pedidos más el de orden asignados
+     * */
+    public List<Paciente> buscar(ConsultaPacientes consulta) {
+        List<Paciente> pacientes = new ArrayList<>(consulta.getLimite());
+        int columnas = consulta.columnas();
+        boolean completo = columnas == CamposPaciente.TODOS;
+
+        try (Connection conn = getConnectionLectura("getPagina");
+             PreparedStatement pstmt = conn.prepareStatement(consulta.sql())) {
+
+            consulta.enlazar(pstmt);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    pacientes.add(completo ? mapear(rs) : mapear(rs, columnas));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
         }
+        return pacientes;
     }
 
     /*
-     * Método que obtiene todos los pacientes de la base de datos
-     * @return Lista de objetos Paciente con todos los registros encontrados
+     * Método que busca pacientes cuyo nombre empieza por un prefijo usando idx_paciente_nombre.
+     * La intercalación utf8mb4_general_ci de la tabla ya ignora tildes y mayúsculas.
+     * @param prefijo Parámetro que define el inicio del nombre a buscar
+     * @param limite Parámetro que define el número máximo de pacientes a devolver
+     * @return Lista de pacientes ordenada por nombre
      * */
-    public List<Paciente> getAll() {
+    public List<Paciente> buscarPorNombre(String prefijo, int limite) {
         List<Paciente> pacientes = new ArrayList<>();
-        String sql = "SELECT cedula, nombre, correo, edad, direccion, activo FROM paciente";
-
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                Paciente paciente = new Paciente();
-                paciente.setCedula(rs.getString("cedula"));
-                paciente.setNombre(rs.getString("nombre"));
-                paciente.setCorreo(rs.getString("correo"));
-                paciente.setEdad(rs.getInt("edad"));
-                paciente.setDireccion(rs.getString("direccion"));
-                paciente.setActivo(rs.getBoolean("activo"));
-                pacientes.add(paciente);
+        String sql = "SELECT " + COLUMNAS + " FROM paciente "
+                + "WHERE nombre LIKE ? ESCAPE '!' ORDER BY nombre LIMIT ?";
+
+        try (Connection conn = getConnectionLectura("buscarPorNombre");
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            String patron = prefijo.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+            pstmt.setString(1, patron);
+            pstmt.setInt(2, limite);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    pacientes.add(mapear(rs));
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -60,28 +204,74 @@ public class PacienteDAO {
         return pacientes;
     }
 
+    /*
+     * Método que recorre todos los pacientes en streaming, sin cargar la tabla en memoria.
+     * Usa un ResultSet forward-only y de solo lectura con fetch size Integer.MIN_VALUE,
+     * que indica al driver de MySQL que entregue las filas una a una. Lee del primario porque
+     * lo usan las estructuras en memoria que se reconcilian con los avisos de escritura.
+     * @param procesador Parámetro que define la acción a ejecutar por cada paciente leído
+     * @throws SQLException Si ocurre un error al consultar la base de datos
+     * @throws IOException Si el procesador falla al manejar un paciente
+     * */
+    public void recorrer(ProcesadorPaciente procesador) throws SQLException, IOException {
+        try (Connection conn = getConnection("recorrer")) {
+            recorrer(conn, procesador);
+        }
+    }
+
+    /*
+     * Método que recorre todos los pacientes en streaming desde una réplica si hay alguna
+     * disponible (exportaciones, donde un pequeño retraso de replicación es aceptable)
+     * @param procesador Parámetro que define la acción a ejecutar por cada paciente leído
+     * @throws SQLException Si ocurre un error al consultar la base de datos
+     * @throws IOException Si el procesador falla al manejar un paciente
+     * */
+    public void recorrerLectura(ProcesadorPaciente procesador) throws SQLException, IOException {
+        try (Connection conn = getConnectionLectura("recorrerLectura")) {
+            recorrer(conn, procesador);
+        }
+    }
+
+    private static void recorrer(Connection conn, ProcesadorPaciente procesador) throws SQLException, IOException {
+        String sql = "SELECT " + COLUMNAS + " FROM paciente ORDER BY cedula";
+
+        try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    procesador.procesar(mapear(rs));
+                }
+            }
+        }
+    }
+
     /*
      * Método que obtiene un paciente específico por su número de cédula
      * @param cedula Parámetro que define el número de cédula del paciente a buscar
      * @return Objeto Paciente si se encuentra, null si no existe
      * */
     public Paciente getByCedula(String cedula) {
-        String sql = "SELECT cedula, nombre, correo, edad, direccion, activo FROM paciente WHERE cedula = ?";
+        return getByCedula(cedula, CamposPaciente.TODOS);
+    }
 
-        try (Connection conn = getConnection();
+    /*
+     * Método que obtiene un paciente leyendo solo algunas columnas
+     * @param cedula Parámetro que define el número de cédula del paciente
+     * @param campos Parámetro que define la máscara de CamposPaciente a leer (siempre incluye la cédula)
+     * @return Paciente con solo los campos pedidos asignados, o null si no existe
+     * */
+    public Paciente getByCedula(String cedula, int campos) {
+        boolean completo = campos == CamposPaciente.TODOS;
+        String columnas = completo ? COLUMNAS : CamposPaciente.columnas(campos | CamposPaciente.CEDULA);
+        String sql = "SELECT " + columnas + " FROM paciente WHERE cedula = ?";
+
+        try (Connection conn = getConnectionLectura("getByCedula", cedula);
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, cedula);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    Paciente paciente = new Paciente();
-                    paciente.setCedula(rs.getString("cedula"));
-                    paciente.setNombre(rs.getString("nombre"));
-                    paciente.setCorreo(rs.getString("correo"));
-                    paciente.setEdad(rs.getInt("edad"));
-                    paciente.setDireccion(rs.getString("direccion"));
-                    paciente.setActivo(rs.getBoolean("activo"));
-                    return paciente;
+                    return completo ? mapear(rs) : mapear(rs, campos);
                 }
             }
         } catch (SQLException e) {
@@ -91,27 +281,217 @@ public class PacienteDAO {
     }
 
     /*
-     * Método que crea un nuevo paciente en la base de datos
-     * @param paciente Parámetro que define el objeto Paciente a insertar
-     * @return true si el paciente fue creado exitosamente, false en caso contrario
+     * Método que obtiene varios pacientes por cédula con consultas WHERE cedula IN (...) en bloques
+     * sobre una sola conexión. Cada bloque se completa repitiendo su última cédula hasta la
+     * siguiente potencia de dos, así el driver y MySQL reutilizan pocas sentencias preparadas.
+     * @param cedulas Parámetro que define las cédulas a buscar, sin repetir
+     * @return Mapa cédula -> paciente con los encontrados, o null si ocurre un error
      * */
-    public boolean create(Paciente paciente) {
-        String sql = "INSERT INTO paciente (cedula, nombre, correo, edad, direccion, activo) VALUES (?, ?, ?, ?, ?, TRUE)";
+    public Map<String, Paciente> getPorCedulas(List<String> cedulas) {
+        Map<String, Paciente> encontrados = new HashMap<>(cedulas.size() * 2);
+        if (cedulas.isEmpty()) {
+            return encontrados;
+        }
+
+        try (Connection conn = getConnectionLectura("getPorCedulas", cedulas)) {
+            for (int desde = 0; desde < cedulas.size(); desde += BLOQUE_IN_MAXIMO) {
+                int hasta = Math.min(desde + BLOQUE_IN_MAXIMO, cedulas.size());
+                int bloque = Math.max(BLOQUE_IN_MINIMO, Integer.highestOneBit(hasta - desde - 1) << 1);
+                bloque = Math.min(bloque, BLOQUE_IN_MAXIMO);
 
-        try (Connection conn = getConnection();
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlPorBloque(bloque))) {
+                    for (int i = 0; i < bloque; i++) {
+                        pstmt.setString(i + 1, cedulas.get(Math.min(desde + i, hasta - 1)));
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            Paciente paciente = mapear(rs);
+                            encontrados.put(paciente.getCedula(), paciente);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return encontrados;
+    }
+
+    /*
+     * Método privado que obtiene la sentencia IN (...) de un tamaño de bloque, armándola la primera vez
+     * @param bloque Parámetro que define el número de parámetros, potencia de dos
+     * @return Sentencia SQL con ese número de parámetros
+     * */
+    private static String sqlPorBloque(int bloque) {
+        int indice = Integer.numberOfTrailingZeros(bloque);
+        String sql = SQL_POR_BLOQUE[indice];
+        if (sql == null) {
+            StringBuilder sb = new StringBuilder("SELECT " + COLUMNAS + " FROM paciente WHERE cedula IN (?");
+            for (int i = 1; i < bloque; i++) {
+                sb.append(", ?");
+            }
+            sql = sb.append(')').toString();
+            SQL_POR_BLOQUE[indice] = sql;
+        }
+        return sql;
+    }
+
+    /*
+     * Método que obtiene solo la fecha de última actualización de un paciente, sin leer la fila
+     * completa. Sirve para responder solicitudes condicionales (ETag / Last-Modified).
+     * @param cedula Parámetro que define el número de cédula del paciente
+     * @return Fecha de última actualización, o null si el paciente no existe
+     * */
+    public LocalDateTime getFechaActualizacion(String cedula) {
+        String sql = "SELECT fecha_actualizacion FROM paciente WHERE cedula = ?";
+
+        try (Connection conn = getConnectionLectura("getFechaActualizacion", cedula);
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setString(1, paciente.getCedula());
-            pstmt.setString(2, paciente.getNombre());
-            pstmt.setString(3, paciente.getCorreo());
-            pstmt.setInt(4, paciente.getEdad());
-            pstmt.setString(5, paciente.getDireccion());
+            pstmt.setString(1, cedula);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return aLocalDateTime(rs.getTimestamp(1));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /*
+     * Método que crea un nuevo paciente en la base de datos con un único INSERT.
+     * Los duplicados se detectan por la violación de la clave primaria o del correo único,
+     * sin consultar antes si la cédula existe. Si se crea, el objeto recibido queda completo
+     * (activo y fechas) y puede devolverse sin leerlo de nuevo.
+     * @param paciente Parámetro que define el objeto Paciente a insertar
+     * @return CREADO si se insertó, CEDULA_DUPLICADA o CORREO_DUPLICADO si chocó con una clave única, ERROR en otro caso
+     * */
+    public ResultadoInsercion create(Paciente paciente) {
+        try (Connection conn = getConnection("create");
+             PreparedStatement pstmt = conn.prepareStatement(SQL_INSERTAR)) {
+
+            enlazarInsercion(pstmt, paciente);
 
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() == 0) {
+                return ResultadoInsercion.ERROR;
+            }
+            paciente.setActivo(true); // el INSERT siempre registra al paciente como activo
+            notificar(listener -> listener.creado(paciente));
+            return ResultadoInsercion.CREADO;
+        } catch (SQLException e) {
+            ResultadoInsercion resultado = ResultadoInsercion.desde(e);
+            if (resultado == ResultadoInsercion.ERROR) {
+                e.printStackTrace();
+            }
+            return resultado;
+        }
+    }
+
+    /*
+     * Método que inserta muchos pacientes usando una sola conexión y lotes JDBC (addBatch/executeBatch).
+     * Cada lote de TAMANO_LOTE filas se confirma en su propia transacción. Si un lote falla por una
+     * clave duplicada, se deshace y se reintenta fila por fila para saber qué pacientes chocaron.
+     * @param pacientes Parámetro que define los pacientes ya validados a insertar
+     * @return Arreglo con el resultado de cada paciente, en el mismo orden de la lista
+     * */
+    public ResultadoInsercion[] createLote(List<Paciente> pacientes) {
+        ResultadoInsercion[] resultados = new ResultadoInsercion[pacientes.size()];
+
+        try (Connection conn = getConnection("createLote")) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(SQL_INSERTAR)) {
+                for (int inicio = 0; inicio < pacientes.size(); inicio += TAMANO_LOTE) {
+                    int fin = Math.min(inicio + TAMANO_LOTE, pacientes.size());
+                    insertarLote(conn, pstmt, pacientes, inicio, fin, resultados);
+                }
+            } catch (SQLException e) {
+                // Se deshace el lote en curso antes de restaurar el autocommit, que lo confirmaría
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
         } catch (SQLException e) {
             e.printStackTrace();
-            return false;
         }
+
+        for (int i = 0; i < resultados.length; i++) {
+            if (resultados[i] == null) {
+                resultados[i] = ResultadoInsercion.ERROR;
+            } else if (resultados[i] == ResultadoInsercion.CREADO) {
+                Paciente paciente = pacientes.get(i);
+                paciente.setActivo(true);
+                notificar(listener -> listener.creado(paciente));
+            }
+        }
+        return resultados;
+    }
+
+    /*
+     * Método que inserta un lote de pacientes en una transacción
+     * @param conn Parámetro que define la conexión con autocommit desactivado
+     * @param pstmt Parámetro que define la sentencia de inserción preparada
+     * @param pacientes Parámetro que define la lista completa de pacientes
+     * @param inicio Parámetro que define la primera posición del lote (inclusiva)
+     * @param fin Parámetro que define la última posición del lote (exclusiva)
+     * @param resultados Parámetro que define el arreglo donde se registra el resultado de cada paciente
+     * @throws SQLException Si falla la conexión o la transacción
+     * */
+    private void insertarLote(Connection conn, PreparedStatement pstmt, List<Paciente> pacientes,
+                              int inicio, int fin, ResultadoInsercion[] resultados) throws SQLException {
+        try {
+            for (int i = inicio; i < fin; i++) {
+                enlazarInsercion(pstmt, pacientes.get(i));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            conn.commit();
+            for (int i = inicio; i < fin; i++) {
+                resultados[i] = ResultadoInsercion.CREADO;
+            }
+        } catch (BatchUpdateException e) {
+            conn.rollback();
+            pstmt.clearBatch();
+
+            // Reintento fila por fila: un error en una sentencia no anula el resto de la transacción
+            ResultadoInsercion[] parciales = new ResultadoInsercion[fin - inicio];
+            for (int i = inicio; i < fin; i++) {
+                try {
+                    enlazarInsercion(pstmt, pacientes.get(i));
+                    pstmt.executeUpdate();
+                    parciales[i - inicio] = ResultadoInsercion.CREADO;
+                } catch (SQLException fila) {
+                    parciales[i - inicio] = ResultadoInsercion.desde(fila);
+                }
+            }
+            conn.commit();
+            System.arraycopy(parciales, 0, resultados, inicio, parciales.length);
+        }
+    }
+
+    /*
+     * Método que asigna los parámetros de la sentencia de inserción. Fija en el paciente las
+     * fechas de creación y actualización (truncadas a segundos, como las guarda MySQL).
+     * @param pstmt Parámetro que define la sentencia SQL_INSERTAR preparada
+     * @param paciente Parámetro que define el paciente a insertar
+     * @throws SQLException Si ocurre un error al asignar los parámetros
+     * */
+    private static void enlazarInsercion(PreparedStatement pstmt, Paciente paciente) throws SQLException {
+        LocalDateTime ahora = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        paciente.setFechaCreacion(ahora);
+        paciente.setFechaActualizacion(ahora);
+
+        pstmt.setString(1, paciente.getCedula());
+        pstmt.setString(2, paciente.getNombre());
+        pstmt.setString(3, paciente.getCorreo());
+        pstmt.setInt(4, paciente.getEdad());
+        pstmt.setString(5, paciente.getDireccion());
+        pstmt.setTimestamp(6, Timestamp.valueOf(ahora));
+        pstmt.setTimestamp(7, Timestamp.valueOf(ahora));
     }
 
     /*
@@ -120,9 +500,10 @@ public class PacienteDAO {
      * @return true si el paciente fue actualizado exitosamente, false en caso contrario
      * */
     public boolean update(Paciente paciente) {
-        String sql = "UPDATE paciente SET nombre = ?, correo = ?, edad = ?, direccion = ?, activo = ? WHERE cedula = ?";
+        String sql = "UPDATE paciente SET nombre = ?, correo = ?, edad = ?, direccion = ?, activo = ?, "
+                + AVANZAR_VERSION + " WHERE cedula = ?";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("update");
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, paciente.getNombre());
@@ -132,13 +513,96 @@ public class PacienteDAO {
             pstmt.setBoolean(5, paciente.getActivo());
             pstmt.setString(6, paciente.getCedula());
 
-            return pstmt.executeUpdate() > 0;
+            boolean actualizado = pstmt.executeUpdate() > 0;
+            if (actualizado) {
+                notificar(listener -> listener.actualizado(paciente));
+            }
+            return actualizado;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
     }
 
+    /*
+     * Método que actualiza solo las columnas indicadas con un único UPDATE. Si se indica la versión
+     * esperada, la comparación con fecha_actualizacion va en la misma sentencia, de modo que dos
+     * ediciones concurrentes no se pisan: la segunda no encuentra la fila y se informa VERSION_DISTINTA.
+     * La versión nueva la calcula MySQL (AVANZAR_VERSION) y se lee en la misma transacción.
+     * @param cedula Parámetro que define el número de cédula del paciente
+     * @param cambios Parámetro que define los valores nuevos por columna (nombre, correo, edad, direccion, activo)
+     * @param versionEsperada Parámetro que define la fecha_actualizacion que el cliente leyó, o null para no comprobarla
+     * @param nuevaVersion Parámetro que define a quién entregar la fecha_actualizacion que queda registrada
+     * @return Resultado de la actualización
+     * */
+    public ResultadoActualizacion updateParcial(String cedula, Map<String, Object> cambios,
+                                                LocalDateTime versionEsperada, Consumer<LocalDateTime> nuevaVersion) {
+        StringBuilder sql = new StringBuilder("UPDATE paciente SET ");
+        for (String columna : cambios.keySet()) {
+            if (!COLUMNAS_EDITABLES.contains(columna)) {
+                throw new IllegalArgumentException("Columna no editable: " + columna);
+            }
+            sql.append(columna).append(" = ?, ");
+        }
+        sql.append(AVANZAR_VERSION).append(" WHERE cedula = ?");
+        if (versionEsperada != null) {
+            sql.append(" AND fecha_actualizacion = ?");
+        }
+
+        LocalDateTime version = null;
+        try (Connection conn = getConnection("updateParcial")) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql.toString());
+                 PreparedStatement lectura = conn.prepareStatement(
+                         "SELECT fecha_actualizacion FROM paciente WHERE cedula = ?")) {
+
+                int indice = 1;
+                for (Object valor : cambios.values()) {
+                    pstmt.setObject(indice++, valor);
+                }
+                pstmt.setString(indice++, cedula);
+                if (versionEsperada != null) {
+                    pstmt.setTimestamp(indice, Timestamp.valueOf(versionEsperada));
+                }
+
+                if (pstmt.executeUpdate() > 0) {
+                    // La fila queda bloqueada por el UPDATE: la lectura ve la versión recién escrita
+                    lectura.setString(1, cedula);
+                    try (ResultSet rs = lectura.executeQuery()) {
+                        if (rs.next()) {
+                            version = aLocalDateTime(rs.getTimestamp(1));
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            if (ResultadoInsercion.desde(e) == ResultadoInsercion.CORREO_DUPLICADO) {
+                return ResultadoActualizacion.CORREO_DUPLICADO;
+            }
+            e.printStackTrace();
+            return ResultadoActualizacion.ERROR;
+        }
+
+        if (version != null) {
+            nuevaVersion.accept(version);
+            notificar(listener -> listener.parcheado(cedula, cambios));
+            return ResultadoActualizacion.ACTUALIZADO;
+        }
+
+        // Ninguna fila coincidió: solo en el caso de error se consulta si el paciente existe
+        if (versionEsperada == null || getFechaActualizacion(cedula) == null) {
+            return ResultadoActualizacion.NO_ENCONTRADO;
+        }
+        return ResultadoActualizacion.VERSION_DISTINTA;
+    }
+
     /*
      * Método que elimina permanentemente un paciente de la base de datos
      * @param cedula Parámetro que define el número de cédula del paciente a eliminar
@@ -147,11 +611,15 @@ public class PacienteDAO {
     public boolean delete(String cedula) {
         String sql = "DELETE FROM paciente WHERE cedula = ?"; // DELETE permanente
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("delete");
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, cedula);
-            return pstmt.executeUpdate() > 0;
+            boolean eliminado = pstmt.executeUpdate() > 0;
+            if (eliminado) {
+                notificar(listener -> listener.eliminado(cedula));
+            }
+            return eliminado;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -165,20 +633,43 @@ public class PacienteDAO {
      * @return true si el estado fue actualizado exitosamente, false en caso contrario
      * */
     public boolean toggleActivo(String cedula, boolean activo) {
-        String sql = "UPDATE paciente SET activo = ? WHERE cedula = ?";
+        String sql = "UPDATE paciente SET activo = ?, " + AVANZAR_VERSION + " WHERE cedula = ?";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("toggleActivo");
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setBoolean(1, activo);
             pstmt.setString(2, cedula);
-            return pstmt.executeUpdate() > 0;
+            boolean actualizado = pstmt.executeUpdate() > 0;
+            if (actualizado) {
+                notificar(listener -> listener.estadoCambiado(cedula, activo));
+            }
+            return actualizado;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
     }
 
+    /*
+     * Método que cuenta los pacientes registrados (lee del primario, como recorrer)
+     * @return Número de pacientes, o -1 si ocurre un error
+     * */
+    public long contar() {
+        String sql = "SELECT COUNT(*) FROM paciente";
+
+        try (Connection conn = getConnection("contar");
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
     /*
      * Método que verifica si un número de cédula ya existe en la base de datos
      * @param cedula Parámetro que define el número de cédula a verificar
@@ -187,7 +678,7 @@ public class PacienteDAO {
     public boolean existeCedula(String cedula) {
         String sql = "SELECT COUNT(*) FROM paciente WHERE cedula = ?";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnectionLectura("existeCedula", cedula);
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, cedula);
@@ -201,4 +692,68 @@ public class PacienteDAO {
         }
         return false;
     }
+
+    /*
+     * Método que convierte la fila actual de un ResultSet en un objeto Paciente
+     * (visible en el paquete para medirlo en los benchmarks)
+     * @param rs Parámetro que define el ResultSet posicionado en la fila a convertir
+     * @return Objeto Paciente con los datos de la fila
+     * @throws SQLException Si ocurre un error al leer las columnas
+     * */
+    static Paciente mapear(ResultSet rs) throws SQLException {
+        Paciente paciente = new Paciente();
+        paciente.setCedula(rs.getString("cedula"));
+        paciente.setNombre(rs.getString("nombre"));
+        paciente.setCorreo(rs.getString("correo"));
+        paciente.setEdad(rs.getInt("edad"));
+        paciente.setDireccion(rs.getString("direccion"));
+        paciente.setActivo(rs.getBoolean("activo"));
+        paciente.setFechaCreacion(aLocalDateTime(rs.getTimestamp("fecha_creacion")));
+        paciente.setFechaActualizacion(aLocalDateTime(rs.getTimestamp("fecha_actualizacion")));
+        return paciente;
+    }
+
+    /*
+     * Método que convierte la fila actual de un ResultSet leído con una lista parcial de columnas;
+     * los campos no pedidos quedan con su valor por defecto
+     * @param rs Parámetro que define el ResultSet posicionado en la fila a convertir
+     * @param campos Parámetro que define la máscara de CamposPaciente que contiene la fila
+     * @return Objeto Paciente con los campos de la fila
+     * @throws SQLException Si ocurre un error al leer las columnas
+     * */
+    private static Paciente mapear(ResultSet rs, int campos) throws SQLException {
+        Paciente paciente = new Paciente();
+        paciente.setCedula(rs.getString("cedula"));
+        if (CamposPaciente.incluye(campos, CamposPaciente.NOMBRE)) {
+            paciente.setNombre(rs.getString("nombre"));
+        }
+        if (CamposPaciente.incluye(campos, CamposPaciente.CORREO)) {
+            paciente.setCorreo(rs.getString("correo"));
+        }
+        if (CamposPaciente.incluye(campos, CamposPaciente.EDAD)) {
+            paciente.setEdad(rs.getInt("edad"));
+        }
+        if (CamposPaciente.incluye(campos, CamposPaciente.DIRECCION)) {
+            paciente.setDireccion(rs.getString("direccion"));
+        }
+        if (CamposPaciente.incluye(campos, CamposPaciente.ACTIVO)) {
+            paciente.setActivo(rs.getBoolean("activo"));
+        }
+        if (CamposPaciente.incluye(campos, CamposPaciente.FECHA_CREACION)) {
+            paciente.setFechaCreacion(aLocalDateTime(rs.getTimestamp("fecha_creacion")));
+        }
+        if (CamposPaciente.incluye(campos, CamposPaciente.FECHA_ACTUALIZACION)) {
+            paciente.setFechaActualizacion(aLocalDateTime(rs.getTimestamp("fecha_actualizacion")));
+        }
+        return paciente;
+    }
+
+    /*
+     * Método que convierte un Timestamp de JDBC en LocalDateTime respetando los nulos
+     * @param timestamp Parámetro que define el valor leído de la base de datos
+     * @return Fecha y hora equivalente, o null si el valor era nulo
+     * */
+    private static LocalDateTime aLocalDateTime(Timestamp timestamp) {
+        return (timestamp == null) ? null : timestamp.toLocalDateTime();
+    }
 }
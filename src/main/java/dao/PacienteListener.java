@@ -0,0 +1,53 @@
+package dao;
+
+import model.Paciente;
+import java.util.Map;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta interfaz denominada PacienteListener recibe los avisos que emite
+ *              PacienteDAO después de cada escritura confirmada en la tabla paciente, para que
+ *              las estructuras en memoria (caché, índices, etc.) se mantengan al día.
+ * */
+
+public interface PacienteListener {
+
+    /*
+     * Método que se invoca después de insertar un paciente
+     * @param paciente Parámetro que define el paciente insertado
+     * */
+    default void creado(Paciente paciente) {
+    }
+
+    /*
+     * Método que se invoca después de actualizar los datos de un paciente
+     * @param paciente Parámetro que define el paciente con los datos actualizados
+     * */
+    default void actualizado(Paciente paciente) {
+    }
+
+    /*
+     * Método que se invoca después de una actualización parcial (PATCH)
+     * @param cedula Parámetro que define la cédula del paciente modificado
+     * @param cambios Parámetro que define los valores nuevos por columna; solo trae las columnas modificadas
+     * */
+    default void parcheado(String cedula, Map<String, Object> cambios) {
+    }
+
+    /*
+     * Método que se invoca después de activar o desactivar un paciente
+     * @param cedula Parámetro que define la cédula del paciente modificado
+     * @param activo Parámetro que define el nuevo estado del paciente
+     * */
+    default void estadoCambiado(String cedula, boolean activo) {
+    }
+
+    /*
+     * Método que se invoca después de eliminar un paciente
+     * @param cedula Parámetro que define la cédula del paciente eliminado
+     * */
+    default void eliminado(String cedula) {
+    }
+}
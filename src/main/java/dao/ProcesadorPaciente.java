@@ -0,0 +1,23 @@
+package dao;
+
+import model.Paciente;
+import java.io.IOException;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta interfaz denominada ProcesadorPaciente recibe, uno por uno, los pacientes
+ *              leídos por un recorrido en streaming de la tabla paciente.
+ * */
+
+@FunctionalInterface
+public interface ProcesadorPaciente {
+
+    /*
+     * Método que procesa un paciente leído de la base de datos
+     * @param paciente Parámetro que define el paciente de la fila actual
+     * @throws IOException Si ocurre un error de entrada/salida al procesarlo
+     * */
+    void procesar(Paciente paciente) throws IOException;
+}
@@ -0,0 +1,17 @@
+package dao;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta enumeración denominada ResultadoActualizacion indica el resultado de una
+ *              actualización parcial con control de versión sobre fecha_actualizacion.
+ * */
+
+public enum ResultadoActualizacion {
+    ACTUALIZADO,
+    NO_ENCONTRADO,
+    VERSION_DISTINTA,
+    CORREO_DUPLICADO,
+    ERROR
+}
@@ -0,0 +1,43 @@
+package dao;
+
+import java.sql.SQLException;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta enumeración denominada ResultadoInsercion indica el resultado de insertar
+ *              un paciente, distinguiendo qué clave única provocó un duplicado.
+ * */
+
+public enum ResultadoInsercion {
+    CREADO,
+    CEDULA_DUPLICADA,
+    CORREO_DUPLICADO,
+    ERROR;
+
+    // Código de error de MySQL para una clave duplicada (ER_DUP_ENTRY)
+    private static final int ER_DUP_ENTRY = 1062;
+
+    /*
+     * Método que clasifica la excepción lanzada por un INSERT fallido
+     * @param e Parámetro que define la excepción devuelta por el driver
+     * @return CEDULA_DUPLICADA o CORREO_DUPLICADO si se violó una clave única, ERROR en otro caso
+     * */
+    static ResultadoInsercion desde(SQLException e) {
+        if (e.getErrorCode() != ER_DUP_ENTRY) {
+            return ERROR;
+        }
+        // El mensaje es del tipo: Duplicate entry 'x' for key 'PRIMARY' (o 'paciente.PRIMARY')
+        String mensaje = e.getMessage();
+        return (mensaje != null && mensaje.contains("PRIMARY")) ? CEDULA_DUPLICADA : CORREO_DUPLICADO;
+    }
+
+    /*
+     * Método que indica si el resultado corresponde a una clave duplicada
+     * @return true si la cédula o el correo ya estaban registrados
+     * */
+    public boolean esDuplicado() {
+        return this == CEDULA_DUPLICADA || this == CORREO_DUPLICADO;
+    }
+}
@@ -0,0 +1,18 @@
+package ejecucion;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta enumeración denominada ClaseOperacion agrupa el trabajo de los recursos REST
+ *              para el control de admisión. Cada clase tiene su propio límite de concurrencia y
+ *              una parte distinta de las conexiones: las escrituras pueden usarlas todas, las
+ *              lecturas puntuales una parte y los listados la menor, para que sean lo primero en
+ *              rechazarse cuando la base de datos se satura.
+ * */
+
+public enum ClaseOperacion {
+    ESCRITURA,
+    LECTURA,
+    LISTADO
+}
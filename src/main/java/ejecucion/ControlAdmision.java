@@ -0,0 +1,271 @@
+package ejecucion;
+
+import config.Configuracion;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada ControlAdmision decide si una tarea de base de datos entra
+ *              ahora, espera un momento o se rechaza. Hay un tope total (el tamaño del pool del
+ *              DataSource) y un límite por ClaseOperacion que se adapta a la latencia observada
+ *              (AIMD): sube de a poco mientras las tareas terminan dentro del objetivo y baja un
+ *              10% cuando lo superan. Cada clase tiene una cola corta con espera acotada; lo que no
+ *              cabe se rechaza enseguida con 503, para que la latencia de cola se mantenga acotada
+ *              cuando MySQL se atasca en lugar de acumular solicitudes hasta el timeout.
+ * */
+
+public final class ControlAdmision {
+
+    private static final boolean HABILITADO = Configuracion.booleano("hospital.admision.habilitada", true);
+
+    // Tope total de tareas simultáneas: debe coincidir con el max-pool-size del DataSource
+    private static final int MAX_TOTAL = Configuracion.entero("hospital.admision.maxConcurrencia",
+            Configuracion.entero("hospital.async.maxConcurrencia", 20));
+
+    // Latencia por tarea a partir de la cual se reduce el límite de su clase
+    private static final long LATENCIA_OBJETIVO_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Configuracion.largo("hospital.admision.latenciaObjetivoMs", 250));
+
+    // Espera máxima en la cola antes de rechazar, y puestos de la cola por clase
+    private static final long ESPERA_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Configuracion.largo("hospital.admision.esperaMs", 200));
+    private static final int COLA = Configuracion.entero("hospital.admision.cola", 10);
+
+    // Parte del tope total que puede usar cada clase (las escrituras usan todo)
+    private static final double CUPO_LECTURAS = Configuracion.decimal("hospital.admision.cupoLecturas", 0.8);
+    private static final double CUPO_LISTADOS = Configuracion.decimal("hospital.admision.cupoListados", 0.5);
+
+    private static final double FACTOR_REDUCCION = 0.9;
+
+    // ReentrantLock en lugar de synchronized: esperar en un monitor fija el hilo virtual a su portador
+    private static final ReentrantLock CANDADO = new ReentrantLock();
+    private static final Condition LIBERADO = CANDADO.newCondition();
+    private static final Map<ClaseOperacion, Estado> ESTADOS = new EnumMap<>(ClaseOperacion.class);
+    private static int totalEnCurso;
+
+    static {
+        ESTADOS.put(ClaseOperacion.ESCRITURA, new Estado(MAX_TOTAL));
+        ESTADOS.put(ClaseOperacion.LECTURA, new Estado(cupo(CUPO_LECTURAS)));
+        ESTADOS.put(ClaseOperacion.LISTADO, new Estado(cupo(CUPO_LISTADOS)));
+    }
+
+    /*
+     * Constructor privado: clase de utilidades estáticas
+     * */
+    private ControlAdmision() {
+    }
+
+    /*
+     * Método que pide permiso para ejecutar una tarea, esperando a lo sumo la espera configurada
+     * @param clase Parámetro que define la clase de operación de la tarea
+     * @return Permiso a devolver con liberar, o null si la tarea se debe rechazar
+     * @throws InterruptedException Si el hilo se interrumpe mientras espera
+     * */
+    public static Permiso admitir(ClaseOperacion clase) throws InterruptedException {
+        if (!HABILITADO) {
+            return new Permiso(clase, System.nanoTime());
+        }
+        Estado estado = ESTADOS.get(clase);
+        CANDADO.lock();
+        try {
+            if (!puedeEntrar(estado)) {
+                if (estado.enEspera >= COLA) {
+                    estado.rechazos.increment();
+                    return null;
+                }
+                estado.enEspera++;
+                try {
+                    long restante = ESPERA_NANOS;
+                    while (!puedeEntrar(estado)) {
+                        if (restante <= 0) {
+                            estado.rechazos.increment();
+                            return null;
+                        }
+                        restante = LIBERADO.awaitNanos(restante);
+                    }
+                } finally {
+                    estado.enEspera--;
+                }
+            }
+            estado.enCurso++;
+            totalEnCurso++;
+            return new Permiso(clase, System.nanoTime());
+        } finally {
+            CANDADO.unlock();
+        }
+    }
+
+    /*
+     * Método que devuelve un permiso y ajusta el límite de su clase con la latencia de la tarea
+     * @param permiso Parámetro que define el permiso obtenido con admitir
+     * */
+    public static void liberar(Permiso permiso) {
+        liberar(permiso, true);
+    }
+
+    /*
+     * Método que devuelve un permiso, ajustando o no el límite de su clase. Las tareas que envían
+     * una respuesta en streaming (exportación) no lo ajustan: su duración depende del tamaño de
+     * la tabla y de la velocidad del cliente, no de la congestión de MySQL.
+     * @param permiso Parámetro que define el permiso obtenido con admitir
+     * @param ajustarLimite Parámetro que define si la latencia de la tarea ajusta el límite de su clase
+     * */
+    public static void liberar(Permiso permiso, boolean ajustarLimite) {
+        if (!HABILITADO) {
+            return;
+        }
+        long ahora = System.nanoTime();
+        long latencia = ahora - permiso.inicio;
+        Estado estado = ESTADOS.get(permiso.clase);
+        CANDADO.lock();
+        try {
+            boolean saturada = estado.enCurso >= (int) estado.limite;
+            estado.enCurso--;
+            totalEnCurso--;
+            if (ajustarLimite && latencia > LATENCIA_OBJETIVO_NANOS) {
+                // Una sola reducción por intervalo objetivo: las tareas que terminan juntas
+                // vienen de la misma congestión y no deben hundir el límite varias veces
+                if (ahora - estado.ultimaReduccion > LATENCIA_OBJETIVO_NANOS) {
+                    estado.limite = Math.max(1, estado.limite * FACTOR_REDUCCION);
+                    estado.ultimaReduccion = ahora;
+                }
+            } else if (ajustarLimite && saturada) {
+                estado.limite = Math.min(estado.maximo, estado.limite + 1 / estado.limite);
+            }
+            LIBERADO.signalAll();
+        } finally {
+            CANDADO.unlock();
+        }
+    }
+
+    /*
+     * Método que obtiene el número de tareas con permiso en este momento
+     * @return Tareas en curso de todas las clases
+     * */
+    public static int enCurso() {
+        CANDADO.lock();
+        try {
+            return totalEnCurso;
+        } finally {
+            CANDADO.unlock();
+        }
+    }
+
+    /*
+     * Método que obtiene el número de tareas esperando en las colas
+     * @return Tareas en espera de todas las clases
+     * */
+    public static int enEspera() {
+        CANDADO.lock();
+        try {
+            int total = 0;
+            for (Estado estado : ESTADOS.values()) {
+                total += estado.enEspera;
+            }
+            return total;
+        } finally {
+            CANDADO.unlock();
+        }
+    }
+
+    /*
+     * Método que obtiene el límite adaptativo actual de una clase
+     * @param clase Parámetro que define la clase de operación
+     * @return Tareas simultáneas permitidas (la parte entera es la que se aplica)
+     * */
+    public static double limite(ClaseOperacion clase) {
+        CANDADO.lock();
+        try {
+            return ESTADOS.get(clase).limite;
+        } finally {
+            CANDADO.unlock();
+        }
+    }
+
+    /*
+     * Método que obtiene el número de tareas en curso de una clase
+     * @param clase Parámetro que define la clase de operación
+     * @return Tareas con permiso de esa clase
+     * */
+    public static int enCurso(ClaseOperacion clase) {
+        CANDADO.lock();
+        try {
+            return ESTADOS.get(clase).enCurso;
+        } finally {
+            CANDADO.unlock();
+        }
+    }
+
+    /*
+     * Método que obtiene el número de tareas de una clase esperando en su cola
+     * @param clase Parámetro que define la clase de operación
+     * @return Tareas en espera de esa clase
+     * */
+    public static int enEspera(ClaseOperacion clase) {
+        CANDADO.lock();
+        try {
+            return ESTADOS.get(clase).enEspera;
+        } finally {
+            CANDADO.unlock();
+        }
+    }
+
+    /*
+     * Método que obtiene el número de tareas de una clase rechazadas desde el inicio
+     * @param clase Parámetro que define la clase de operación
+     * @return Rechazos acumulados
+     * */
+    public static long rechazos(ClaseOperacion clase) {
+        return ESTADOS.get(clase).rechazos.sum();
+    }
+
+    /*
+     * Método privado que indica si una tarea de la clase puede entrar ahora (con el candado tomado)
+     * */
+    private static boolean puedeEntrar(Estado estado) {
+        // El cupo de la clase acota el total: un listado no entra si ya se usa la mitad del pool,
+        // aunque su propio límite lo permita, y deja ese margen a lecturas y escrituras
+        return estado.enCurso < (int) estado.limite && totalEnCurso < estado.maximo;
+    }
+
+    private static int cupo(double fraccion) {
+        return Math.max(1, (int) Math.ceil(MAX_TOTAL * Math.min(Math.max(fraccion, 0), 1)));
+    }
+
+    /*
+     * Clase interna con el permiso de una tarea admitida
+     * */
+    public static final class Permiso {
+        private final ClaseOperacion clase;
+        private final long inicio;
+
+        private Permiso(ClaseOperacion clase, long inicio) {
+            this.clase = clase;
+            this.inicio = inicio;
+        }
+    }
+
+    /*
+     * Clase interna con el límite adaptativo y los contadores de una clase (protegidos por CANDADO)
+     * */
+    private static final class Estado {
+        private final int maximo;
+        private double limite;
+        private int enCurso;
+        private int enEspera;
+        private long ultimaReduccion = System.nanoTime() - LATENCIA_OBJETIVO_NANOS - 1;
+        private final LongAdder rechazos = new LongAdder();
+
+        private Estado(int maximo) {
+            this.maximo = maximo;
+            this.limite = maximo;
+        }
+    }
+}
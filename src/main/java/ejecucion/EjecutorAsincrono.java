@@ -0,0 +1,156 @@
+package ejecucion;
+
+import config.Configuracion;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.core.Response;
+import json.ErrorJson;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada EjecutorAsincrono ejecuta el trabajo de base de datos de
+ *              los recursos REST. En modo asíncrono (-Dhospital.async.habilitado=true) la solicitud
+ *              se suspende con AsyncResponse y el trabajo corre en un hilo virtual, liberando el
+ *              hilo del contenedor. En modo normal el trabajo se ejecuta en el mismo hilo de la
+ *              solicitud, igual que antes. En ambos modos cada tarea pasa antes por ControlAdmision,
+ *              que limita las tareas simultáneas por clase de operación y rechaza con 503 el exceso.
+ * */
+
+public final class EjecutorAsincrono {
+
+    private static final boolean HABILITADO = Configuracion.booleano("hospital.async.habilitado", false);
+
+    // Tamaño del pool de respaldo; debe coincidir con el max-pool-size del DataSource (20 por defecto en WildFly)
+    private static final int MAX_CONCURRENCIA = Configuracion.entero("hospital.async.maxConcurrencia", 20);
+
+    // Tiempo máximo que una solicitud puede permanecer suspendida
+    private static final long TIMEOUT_MS = Configuracion.largo("hospital.async.timeoutMs", 30_000);
+
+    // Cola del ejecutor de respaldo cuando la JVM no tiene hilos virtuales (Java < 21)
+    private static final int COLA_RESPALDO = Configuracion.entero("hospital.async.colaRespaldo", 1_000);
+
+    private static final ExecutorService EJECUTOR = HABILITADO ? crearEjecutor() : null;
+
+    /*
+     * Constructor privado: clase de utilidades estáticas
+     * */
+    private EjecutorAsincrono() {
+    }
+
+    /*
+     * Método que ejecuta una tarea y entrega su respuesta a la solicitud suspendida
+     * @param async Parámetro que define la respuesta asíncrona de JAX-RS
+     * @param clase Parámetro que define la clase de operación, que fija su límite y su prioridad
+     * @param tarea Parámetro que define el trabajo a realizar; no debe usar objetos @Context
+     * */
+    public static void ejecutar(AsyncResponse async, ClaseOperacion clase, Supplier<Response> tarea) {
+        if (!HABILITADO) {
+            ejecutarConPermiso(async, clase, tarea);
+            return;
+        }
+
+        async.setTimeout(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        async.setTimeoutHandler(suspendida -> suspendida.resume(servicioNoDisponible("Tiempo de espera agotado")));
+        try {
+            EJECUTOR.execute(() -> ejecutarConPermiso(async, clase, tarea));
+        } catch (RejectedExecutionException e) {
+            async.resume(servicioNoDisponible("Servidor saturado"));
+        }
+    }
+
+    /*
+     * Método que ejecuta la tarea si el control de admisión la deja entrar
+     * @param async Parámetro que define la respuesta asíncrona de JAX-RS
+     * @param clase Parámetro que define la clase de operación de la tarea
+     * @param tarea Parámetro que define el trabajo a realizar
+     * */
+    private static void ejecutarConPermiso(AsyncResponse async, ClaseOperacion clase, Supplier<Response> tarea) {
+        ControlAdmision.Permiso permiso = null;
+        try {
+            permiso = ControlAdmision.admitir(clase);
+            if (permiso == null) {
+                async.resume(servicioNoDisponible("Servidor saturado"));
+                return;
+            }
+            async.resume(tarea.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            async.resume(servicioNoDisponible("Solicitud interrumpida"));
+        } catch (RuntimeException | Error e) {
+            async.resume(e);
+        } finally {
+            if (permiso != null) {
+                ControlAdmision.liberar(permiso);
+            }
+        }
+    }
+
+    /*
+     * Método que construye una respuesta 503 con Retry-After
+     * @param mensaje Parámetro que define el motivo del rechazo
+     * @return Respuesta HTTP 503
+     * */
+    private static Response servicioNoDisponible(String mensaje) {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .entity(ErrorJson.cuerpo(mensaje))
+                .type("application/json")
+                .build();
+    }
+
+    /*
+     * Método que crea el ejecutor: hilos virtuales si la JVM los soporta (Java 21+) y, si no,
+     * un pool de hilos de plataforma del mismo tamaño que el límite de concurrencia
+     * @return Ejecutor de tareas
+     * */
+    private static ExecutorService crearEjecutor() {
+        try {
+            Method virtuales = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtuales.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger contador = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(MAX_CONCURRENCIA, MAX_CONCURRENCIA,
+                    60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(COLA_RESPALDO), tarea -> {
+                        Thread hilo = new Thread(tarea, "hospital-async-" + contador.incrementAndGet());
+                        hilo.setDaemon(true);
+                        return hilo;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        }
+    }
+
+    /*
+     * Método que indica si el modo asíncrono está activo
+     * @return true si las tareas corren en hilos virtuales
+     * */
+    public static boolean isHabilitado() {
+        return HABILITADO;
+    }
+
+    /*
+     * Método que obtiene el número de tareas ejecutándose en este momento
+     * @return Tareas en curso con permiso de concurrencia
+     * */
+    public static int enCurso() {
+        return ControlAdmision.enCurso();
+    }
+
+    /*
+     * Método que obtiene el número aproximado de tareas esperando un permiso
+     * @return Tareas en espera
+     * */
+    public static int enEspera() {
+        return ControlAdmision.enEspera();
+    }
+}
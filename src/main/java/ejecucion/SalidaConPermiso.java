@@ -0,0 +1,72 @@
+package ejecucion;
+
+import jakarta.ws.rs.container.CompletionCallback;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada SalidaConPermiso envuelve una respuesta en streaming que
+ *              retiene un cupo (permiso de ControlAdmision, cupo de importación) mientras escribe.
+ *              El cupo se devuelve una sola vez: al terminar de escribir o, si el cuerpo nunca se
+ *              escribe (HEAD, un filtro o interceptor que falla antes, solicitud abortada), cuando
+ *              JAX-RS da por completada la solicitud. Se debe registrar en el AsyncResponse.
+ * */
+
+public final class SalidaConPermiso implements StreamingOutput, CompletionCallback {
+
+    private final StreamingOutput salida;
+    private final Runnable liberar;
+    private final AtomicBoolean liberado = new AtomicBoolean();
+
+    /*
+     * Constructor que asocia el cuerpo con la devolución de su cupo
+     * @param salida Parámetro que define el cuerpo de la respuesta
+     * @param liberar Parámetro que define cómo devolver el cupo tomado antes de crear la respuesta
+     * */
+    public SalidaConPermiso(StreamingOutput salida, Runnable liberar) {
+        this.salida = salida;
+        this.liberar = liberar;
+    }
+
+    /*
+     * Método que escribe el cuerpo y devuelve el cupo apenas termina, haya fallado o no
+     * @param output Parámetro que define el flujo de la respuesta
+     * @throws IOException Si falla la escritura del cuerpo
+     * */
+    @Override
+    public void write(OutputStream output) throws IOException {
+        try {
+            salida.write(output);
+        } finally {
+            liberar();
+        }
+    }
+
+    /*
+     * Método que JAX-RS invoca al completar la solicitud; devuelve el cupo si write no lo hizo
+     * @param error Parámetro que define el error sin mapear de la solicitud, o null
+     * */
+    @Override
+    public void onComplete(Throwable error) {
+        liberar();
+    }
+
+    /*
+     * Método que indica si el cupo ya se devolvió
+     * @return true después de la primera devolución
+     * */
+    public boolean isLiberado() {
+        return liberado.get();
+    }
+
+    private void liberar() {
+        if (liberado.compareAndSet(false, true)) {
+            liberar.run();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package estadisticas;
+
+import config.Configuracion;
+import dao.PacienteDAO;
+import dao.PacienteListener;
+import model.Paciente;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada EstadisticasPacientes mantiene en memoria los totales de
+ *              pacientes (activos, inactivos, por rango de edad y registros por día). Se construye
+ *              recorriendo la tabla una vez, se actualiza con cada aviso de escritura de PacienteDAO
+ *              y se reconcilia periódicamente volviendo a recorrer la tabla, por si algún cambio se
+ *              hizo fuera de la aplicación. Consultarla no toca la base de datos.
+ * */
+
+public final class EstadisticasPacientes implements PacienteListener {
+
+    // Límite superior (exclusivo) de cada rango de edad; el último rango no tiene límite
+    private static final int[] LIMITES_EDAD = {18, 30, 45, 60, 75};
+    private static final String[] NOMBRES_EDAD = {"0-17", "18-29", "30-44", "45-59", "60-74", "75+"};
+
+    // Días hacia atrás que se devuelven en registros por día
+    private static final int DIAS_REPORTADOS = Configuracion.entero("hospital.stats.dias", 30);
+
+    private static final EstadisticasPacientes INSTANCIA = new EstadisticasPacientes();
+
+    static {
+        PacienteDAO.registrarListener(INSTANCIA);
+    }
+
+    // Totales vigentes; solo se leen y modifican con el monitor de la instancia
+    private Agregado actual = new Agregado();
+
+    // Cambios recibidos mientras se recorre la tabla, para aplicarlos también al agregado nuevo
+    private final List<Consumer<Agregado>> pendientes = new ArrayList<>();
+    private boolean reconstruyendo;
+
+    private volatile boolean listo;
+    private volatile LocalDateTime ultimaReconciliacion;
+
+    // Respuesta ya armada; se descarta con cada cambio
+    private volatile Map<String, Object> resumen;
+
+    private EstadisticasPacientes() {
+    }
+
+    /*
+     * Método que obtiene la instancia única de las estadísticas
+     * @return Estadísticas compartidas por la aplicación
+     * */
+    public static EstadisticasPacientes getInstance() {
+        return INSTANCIA;
+    }
+
+    /*
+     * Método que recalcula los totales recorriendo la tabla paciente en streaming. Sirve tanto para
+     * la carga inicial como para la reconciliación periódica; los avisos que llegan mientras tanto
+     * se aplican después sobre el resultado, así que no se pierden.
+     * */
+    public void reconstruir() {
+        synchronized (this) {
+            reconstruyendo = true;
+            pendientes.clear();
+        }
+        Agregado nuevo = new Agregado();
+        try {
+            new PacienteDAO().recorrer(paciente -> nuevo.poner(paciente.getCedula(), empaquetar(paciente)));
+        } catch (Exception e) {
+            synchronized (this) {
+                reconstruyendo = false;
+                pendientes.clear();
+            }
+            e.printStackTrace();
+            return;
+        }
+
+        synchronized (this) {
+            for (Consumer<Agregado> cambio : pendientes) {
+                cambio.accept(nuevo);
+            }
+            pendientes.clear();
+            reconstruyendo = false;
+            actual = nuevo;
+            resumen = null;
+        }
+        ultimaReconciliacion = LocalDateTime.now();
+        listo = true;
+    }
+
+    /*
+     * Método que indica si ya terminó la carga inicial
+     * @return true si las estadísticas se pueden consultar
+     * */
+    public boolean isListo() {
+        return listo;
+    }
+
+    /*
+     * Método que obtiene el resumen de estadísticas sin consultar la base de datos
+     * @return Mapa con total, activos, inactivos, rangos de edad y registros por día
+     * */
+    public Map<String, Object> resumen() {
+        Map<String, Object> copia = resumen;
+        if (copia != null) {
+            return copia;
+        }
+        synchronized (this) {
+            Map<String, Object> datos = new LinkedHashMap<>();
+            datos.put("total", actual.total);
+            datos.put("activos", actual.activos);
+            datos.put("inactivos", actual.total - actual.activos);
+
+            Map<String, Long> porEdad = new LinkedHashMap<>();
+            for (int i = 0; i < NOMBRES_EDAD.length; i++) {
+                porEdad.put(NOMBRES_EDAD[i], actual.porEdad[i]);
+            }
+            datos.put("porEdad", porEdad);
+
+            long hoy = LocalDate.now().toEpochDay();
+            Map<String, Long> porDia = new LinkedHashMap<>();
+            for (Map.Entry<Long, Long> dia : actual.porDia.tailMap(hoy - DIAS_REPORTADOS + 1).entrySet()) {
+                porDia.put(LocalDate.ofEpochDay(dia.getKey()).toString(), dia.getValue());
+            }
+            datos.put("registrosPorDia", porDia);
+            datos.put("ultimaReconciliacion",
+                    (ultimaReconciliacion == null) ? null : ultimaReconciliacion.toString());
+
+            resumen = datos;
+            return datos;
+        }
+    }
+
+    @Override
+    public void creado(Paciente paciente) {
+        int estado = empaquetar(paciente);
+        aplicar(agregado -> agregado.poner(paciente.getCedula(), estado));
+    }
+
+    @Override
+    public void actualizado(Paciente paciente) {
+        int edad = paciente.getEdad();
+        boolean activo = paciente.isActivo();
+        aplicar(agregado -> agregado.modificar(paciente.getCedula(), edad, activo));
+    }
+
+    @Override
+    public void parcheado(String cedula, Map<String, Object> cambios) {
+        Object edad = cambios.get("edad");
+        Object activo = cambios.get("activo");
+        if (edad == null && activo == null) {
+            return;
+        }
+        aplicar(agregado -> {
+            Integer anterior = agregado.estados.get(cedula);
+            if (anterior != null) {
+                agregado.modificar(cedula,
+                        (edad != null) ? (Integer) edad : edadDe(anterior),
+                        (activo != null) ? (Boolean) activo : activoDe(anterior));
+            }
+        });
+    }
+
+    @Override
+    public void estadoCambiado(String cedula, boolean activo) {
+        aplicar(agregado -> {
+            Integer anterior = agregado.estados.get(cedula);
+            if (anterior != null) {
+                agregado.modificar(cedula, edadDe(anterior), activo);
+            }
+        });
+    }
+
+    @Override
+    public void eliminado(String cedula) {
+        aplicar(agregado -> agregado.quitar(cedula));
+    }
+
+    /*
+     * Método que aplica un cambio a los totales vigentes y, si se está reconstruyendo, lo guarda
+     * para repetirlo sobre el agregado nuevo. Los cambios fijan valores absolutos, por lo que
+     * repetirlos sobre una fila que el recorrido ya vio no altera el resultado.
+     * @param cambio Parámetro que define el cambio a aplicar
+     * */
+    private synchronized void aplicar(Consumer<Agregado> cambio) {
+        cambio.accept(actual);
+        if (reconstruyendo) {
+            pendientes.add(cambio);
+        }
+        resumen = null;
+    }
+
+    /*
+     * Método que empaqueta en un int la edad (7 bits), el estado (1 bit) y el día de registro
+     * @param paciente Parámetro que define el paciente
+     * @return Estado empaquetado
+     * */
+    private static int empaquetar(Paciente paciente) {
+        LocalDateTime creacion = paciente.getFechaCreacion();
+        long dia = ((creacion != null) ? creacion.toLocalDate() : LocalDate.now()).toEpochDay();
+        return empaquetar(paciente.getEdad(), paciente.isActivo(), dia);
+    }
+
+    private static int empaquetar(int edad, boolean activo, long dia) {
+        return (Math.max(0, Math.min(edad, 127))) | (activo ? 1 << 7 : 0) | ((int) dia << 8);
+    }
+
+    private static int edadDe(int estado) {
+        return estado & 0x7f;
+    }
+
+    private static boolean activoDe(int estado) {
+        return (estado & (1 << 7)) != 0;
+    }
+
+    private static long diaDe(int estado) {
+        return estado >>> 8;
+    }
+
+    private static int rangoEdad(int edad) {
+        int rango = 0;
+        while (rango < LIMITES_EDAD.length && edad >= LIMITES_EDAD[rango]) {
+            rango++;
+        }
+        return rango;
+    }
+
+    /*
+     * Totales y estado por cédula necesarios para aplicar cada cambio como una diferencia
+     * */
+    private static final class Agregado {
+        final Map<String, Integer> estados = new HashMap<>();
+        final long[] porEdad = new long[NOMBRES_EDAD.length];
+        final TreeMap<Long, Long> porDia = new TreeMap<>();
+        long total;
+        long activos;
+
+        void poner(String cedula, int estado) {
+            quitar(cedula);
+            estados.put(cedula, estado);
+            total++;
+            if (activoDe(estado)) {
+                activos++;
+            }
+            porEdad[rangoEdad(edadDe(estado))]++;
+            porDia.merge(diaDe(estado), 1L, Long::sum);
+        }
+
+        void modificar(String cedula, int edad, boolean activo) {
+            Integer anterior = estados.get(cedula);
+            if (anterior != null) {
+                poner(cedula, empaquetar(edad, activo, diaDe(anterior)));
+            }
+        }
+
+        void quitar(String cedula) {
+            Integer anterior = estados.remove(cedula);
+            if (anterior == null) {
+                return;
+            }
+            total--;
+            if (activoDe(anterior)) {
+                activos--;
+            }
+            porEdad[rangoEdad(edadDe(anterior))]--;
+            porDia.computeIfPresent(diaDe(anterior), (dia, cantidad) -> (cantidad > 1) ? cantidad - 1 : null);
+        }
+    }
+}
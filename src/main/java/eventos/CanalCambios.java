@@ -0,0 +1,258 @@
+package eventos;
+
+import config.Configuracion;
+import dao.PacienteDAO;
+import dao.PacienteListener;
+import jakarta.json.Json;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseBroadcaster;
+import jakarta.ws.rs.sse.SseEventSink;
+import model.Paciente;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada CanalCambios difunde por Server-Sent Events los cambios de
+ *              pacientes (creado, actualizado, activado, desactivado, eliminado) que avisa
+ *              PacienteDAO. Guarda los últimos eventos en un buffer circular acotado para que un
+ *              cliente que se reconecta con Last-Event-ID reciba lo que se perdió, y si ya no están
+ *              en el buffer le pide recargar la lista completa. Los envíos corren en un hilo propio,
+ *              en el mismo orden de los ids, para que un cliente lento no demore las escrituras.
+ * */
+
+public final class CanalCambios implements PacienteListener {
+
+    // Evento que pide al cliente volver a cargar la lista porque no se pueden reponer los cambios
+    static final String EVENTO_REINICIO = "reinicio";
+
+    private static final int CAPACIDAD = Math.max(1, Configuracion.entero("hospital.cambios.buffer", 1000));
+    private static final long REINTENTO_MS = Configuracion.largo("hospital.cambios.reintentoMs", 3000);
+
+    private static final CanalCambios INSTANCIA = new CanalCambios();
+
+    static {
+        PacienteDAO.registrarListener(INSTANCIA);
+    }
+
+    // Buffer circular de los últimos eventos; se protege con el monitor de la instancia
+    private final Evento[] recientes = new Evento[CAPACIDAD];
+    private int siguientePosicion;
+    private int guardados;
+
+    // Los ids parten de la hora de arranque, así los de una ejecución anterior quedan fuera del buffer
+    private long ultimoId = System.currentTimeMillis();
+
+    private final AtomicInteger suscriptores = new AtomicInteger();
+
+    // Hilo único de envío: conserva el orden de los eventos y saca los envíos bloqueantes del
+    // hilo de la solicitud que escribió. Las tareas se encolan con el monitor tomado.
+    private final ExecutorService envios = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "hospital-sse");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private Sse sse;
+    private SseBroadcaster broadcaster;
+
+    private CanalCambios() {
+    }
+
+    /*
+     * Método que obtiene la instancia única del canal
+     * @return Canal de cambios compartido por la aplicación
+     * */
+    public static CanalCambios getInstance() {
+        return INSTANCIA;
+    }
+
+    /*
+     * Método que registra un cliente. Si trae Last-Event-ID se le envían antes los eventos
+     * posteriores. Con el monitor tomado solo se copian esos eventos y se encola el envío; como
+     * la cola de envíos sigue el orden de los ids, no se pierde ni se repite ningún evento
+     * publicado mientras tanto.
+     * @param sink Parámetro que define la conexión SSE del cliente
+     * @param sse Parámetro que define la fábrica de eventos de JAX-RS
+     * @param ultimoIdCliente Parámetro que define el valor de Last-Event-ID, o null si es la primera conexión
+     * */
+    public synchronized void suscribir(SseEventSink sink, Sse sse, String ultimoIdCliente) {
+        if (broadcaster == null) {
+            this.sse = sse;
+            broadcaster = sse.newBroadcaster();
+            broadcaster.onClose(cerrado -> suscriptores.decrementAndGet());
+            broadcaster.onError((cerrado, error) -> cerrado.close());
+        }
+
+        List<Evento> perdidos = new ArrayList<>();
+        boolean reiniciar = ultimoIdCliente != null && !reponer(perdidos, ultimoIdCliente.trim());
+        long idReinicio = ultimoId;
+        Sse fabrica = this.sse;
+        SseBroadcaster difusor = broadcaster;
+        envios.execute(() -> {
+            try {
+                sink.send(fabrica.newEventBuilder().comment("conectado").reconnectDelay(REINTENTO_MS).build());
+                if (reiniciar) {
+                    sink.send(fabrica.newEventBuilder()
+                            .id(Long.toString(idReinicio))
+                            .name(EVENTO_REINICIO)
+                            .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                            .data(String.class, "{}")
+                            .build());
+                }
+                for (Evento evento : perdidos) {
+                    if (sink.isClosed()) {
+                        return;
+                    }
+                    sink.send(aSse(fabrica, evento));
+                }
+                difusor.register(sink);
+                suscriptores.incrementAndGet();
+            } catch (RuntimeException e) {
+                // El cliente se desconectó durante la reposición: volverá con su Last-Event-ID
+                sink.close();
+            }
+        });
+    }
+
+    /*
+     * Método que envía un comentario a todos los clientes para mantener viva la conexión a través
+     * de proxies y descartar las conexiones cerradas
+     * */
+    public synchronized void latido() {
+        if (broadcaster != null && suscriptores.get() > 0) {
+            Sse fabrica = sse;
+            SseBroadcaster difusor = broadcaster;
+            envios.execute(() -> difusor.broadcast(fabrica.newEventBuilder().comment("latido").build()));
+        }
+    }
+
+    /*
+     * Método que obtiene la cantidad de clientes conectados
+     * @return Número de conexiones SSE abiertas
+     * */
+    public int getSuscriptores() {
+        return suscriptores.get();
+    }
+
+    @Override
+    public void creado(Paciente paciente) {
+        publicar("creado", paciente.getCedula(), null);
+    }
+
+    @Override
+    public void actualizado(Paciente paciente) {
+        publicar("actualizado", paciente.getCedula(), null);
+    }
+
+    @Override
+    public void parcheado(String cedula, Map<String, Object> cambios) {
+        JsonArrayBuilder campos = Json.createArrayBuilder();
+        for (String campo : cambios.keySet()) {
+            campos.add(campo);
+        }
+        publicar("actualizado", cedula, Json.createObjectBuilder().add("campos", campos));
+    }
+
+    @Override
+    public void estadoCambiado(String cedula, boolean activo) {
+        publicar(activo ? "activado" : "desactivado", cedula, null);
+    }
+
+    @Override
+    public void eliminado(String cedula) {
+        publicar("eliminado", cedula, null);
+    }
+
+    /*
+     * Método que guarda un evento en el buffer y encola su difusión a los clientes conectados
+     * @param tipo Parámetro que define el nombre del evento
+     * @param cedula Parámetro que define la cédula del paciente afectado
+     * @param extra Parámetro que define datos adicionales del evento, puede ser null
+     * */
+    private void publicar(String tipo, String cedula, JsonObjectBuilder extra) {
+        JsonObjectBuilder datos = (extra != null) ? extra : Json.createObjectBuilder();
+        String json = datos.add("cedula", cedula).build().toString();
+
+        // Con el monitor solo se asigna el id, se guarda en el buffer y se encola el envío
+        synchronized (this) {
+            Evento evento = new Evento(++ultimoId, tipo, json);
+            recientes[siguientePosicion] = evento;
+            siguientePosicion = (siguientePosicion + 1) % CAPACIDAD;
+            guardados = Math.min(guardados + 1, CAPACIDAD);
+
+            // Se encola aunque no haya suscriptores confirmados: puede haber un registro en la cola
+            if (broadcaster != null) {
+                Sse fabrica = sse;
+                SseBroadcaster difusor = broadcaster;
+                envios.execute(() -> difusor.broadcast(aSse(fabrica, evento)));
+            }
+        }
+    }
+
+    /*
+     * Método que copia los eventos posteriores al último que recibió el cliente (con el monitor tomado)
+     * @param salida Parámetro que define la lista donde se agregan los eventos a reponer
+     * @param ultimoIdCliente Parámetro que define el último id que recibió el cliente
+     * @return true si se pueden reponer, false si ya no están en el buffer y el cliente debe recargar
+     * */
+    private boolean reponer(List<Evento> salida, String ultimoIdCliente) {
+        long desde;
+        try {
+            desde = Long.parseLong(ultimoIdCliente);
+        } catch (NumberFormatException e) {
+            desde = -1;
+        }
+
+        // El id más antiguo que todavía se puede reponer
+        long primero = ultimoId - guardados + 1;
+        if (desde < primero - 1 || desde > ultimoId) {
+            return false;
+        }
+        for (long id = desde + 1; id <= ultimoId; id++) {
+            int posicion = (int) Math.floorMod(siguientePosicion - (ultimoId - id) - 1, (long) CAPACIDAD);
+            salida.add(recientes[posicion]);
+        }
+        return true;
+    }
+
+    /*
+     * Método que convierte un evento guardado en un evento SSE
+     * @param sse Parámetro que define la fábrica de eventos de JAX-RS
+     * @param evento Parámetro que define el evento del buffer
+     * @return Evento listo para enviar
+     * */
+    private static OutboundSseEvent aSse(Sse sse, Evento evento) {
+        return sse.newEventBuilder()
+                .id(Long.toString(evento.id))
+                .name(evento.tipo)
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(String.class, evento.datos)
+                .build();
+    }
+
+    /*
+     * Evento guardado en el buffer, con los datos ya serializados
+     * */
+    private static final class Evento {
+        final long id;
+        final String tipo;
+        final String datos;
+
+        Evento(long id, String tipo, String datos) {
+            this.id = id;
+            this.tipo = tipo;
+            this.datos = datos;
+        }
+    }
+}
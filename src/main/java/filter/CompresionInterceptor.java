@@ -0,0 +1,166 @@
+package filter;
+
+import config.Configuracion;
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada CompresionInterceptor comprime con gzip o deflate el cuerpo
+ *              de las respuestas cuando el cliente lo acepta (Accept-Encoding) y la respuesta
+ *              supera un umbral configurable, de modo que las consultas de un solo paciente no
+ *              pagan el costo de CPU. La codificación se elige en el filtro de solicitud y se
+ *              guarda como propiedad, para no depender de @Context al escribir en modo asíncrono.
+ * */
+
+@Provider
+@Priority(Priorities.ENTITY_CODER)
+public class CompresionInterceptor implements ContainerRequestFilter, WriterInterceptor {
+
+    private static final boolean HABILITADA = Configuracion.booleano("hospital.compresion.habilitada", true);
+    private static final int UMBRAL = Configuracion.entero("hospital.compresion.umbralBytes", 1024);
+
+    private static final String PROPIEDAD_CODIFICACION = CompresionInterceptor.class.getName() + ".codificacion";
+
+    /*
+     * Método que elige la codificación a partir del header Accept-Encoding de la solicitud
+     * @param requestContext Parámetro que define el contexto de la solicitud HTTP
+     * @throws IOException Si ocurre un error de entrada/salida durante el filtrado
+     * */
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        if (HABILITADA) {
+            String codificacion = elegir(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+            if (codificacion != null) {
+                requestContext.setProperty(PROPIEDAD_CODIFICACION, codificacion);
+            }
+        }
+    }
+
+    /*
+     * Método que envuelve el flujo de la respuesta en una salida comprimida
+     * @param context Parámetro que define el contexto de escritura de la entidad
+     * @throws IOException Si ocurre un error de entrada/salida al escribir
+     * */
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        MultivaluedMap<String, Object> headers = context.getHeaders();
+        if (!HABILITADA || headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                || esFlujoEventos(context.getMediaType())) {
+            context.proceed();
+            return;
+        }
+
+        // La respuesta depende de Accept-Encoding aunque esta vez no se comprima
+        agregarVary(headers);
+
+        Object codificacion = context.getProperty(PROPIEDAD_CODIFICACION);
+        if (codificacion == null) {
+            context.proceed();
+            return;
+        }
+
+        OutputStream original = context.getOutputStream();
+        SalidaComprimida salida = new SalidaComprimida(original, (String) codificacion, UMBRAL, () -> {
+            headers.putSingle(HttpHeaders.CONTENT_ENCODING, codificacion);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+        });
+        context.setOutputStream(salida);
+        try {
+            context.proceed();
+            salida.terminar();
+        } finally {
+            // Si la escritura falló, terminar no llegó a correr: se devuelven igual los recursos
+            salida.descartar();
+            context.setOutputStream(original);
+        }
+    }
+
+    /*
+     * Método que interpreta Accept-Encoding y prefiere gzip sobre deflate. Una codificación
+     * nombrada explícitamente manda sobre "*": con "gzip;q=0, *" no se usa gzip, y el comodín
+     * solo habilita las codificaciones que no aparecen en el header.
+     * @param aceptadas Parámetro que define el valor del header (ej. "gzip, deflate;q=0.5")
+     * @return gzip, deflate, o null si el cliente no acepta ninguna de las dos
+     * */
+    static String elegir(String aceptadas) {
+        if (aceptadas == null || aceptadas.isEmpty()) {
+            return null;
+        }
+        // null: la codificación no aparece; true / false: aparece aceptada / rechazada con q=0
+        Boolean gzip = null;
+        Boolean deflate = null;
+        boolean comodin = false;
+        for (String parte : aceptadas.split(",")) {
+            String[] elementos = parte.split(";");
+            String nombre = elementos[0].trim().toLowerCase(Locale.ROOT);
+            boolean aceptada = calidad(elementos) > 0;
+            if (nombre.equals(SalidaComprimida.GZIP) || nombre.equals("x-gzip")) {
+                gzip = aceptada;
+            } else if (nombre.equals(SalidaComprimida.DEFLATE)) {
+                deflate = aceptada;
+            } else if (nombre.equals("*")) {
+                comodin = aceptada;
+            }
+        }
+        if ((gzip == null) ? comodin : gzip) {
+            return SalidaComprimida.GZIP;
+        }
+        return ((deflate == null) ? comodin : deflate) ? SalidaComprimida.DEFLATE : null;
+    }
+
+    /*
+     * Método que obtiene el parámetro q de una codificación
+     * @param elementos Parámetro que define la codificación y sus parámetros separados
+     * @return Valor de q, 1 si no se indica o no es válido
+     * */
+    private static double calidad(String[] elementos) {
+        for (int i = 1; i < elementos.length; i++) {
+            String parametro = elementos[i].trim();
+            if (parametro.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parametro.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 1;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /*
+     * Método que agrega Accept-Encoding al header Vary sin duplicarlo
+     * @param headers Parámetro que define los headers de la respuesta
+     * */
+    private static void agregarVary(MultivaluedMap<String, Object> headers) {
+        Object actual = headers.getFirst(HttpHeaders.VARY);
+        if (actual == null) {
+            headers.putSingle(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        } else if (!actual.toString().toLowerCase(Locale.ROOT).contains("accept-encoding")) {
+            headers.putSingle(HttpHeaders.VARY, actual + ", " + HttpHeaders.ACCEPT_ENCODING);
+        }
+    }
+
+    /*
+     * Método que indica si la respuesta es un flujo de eventos (SSE), que no se comprime
+     * @param tipo Parámetro que define el tipo de contenido de la respuesta
+     * @return true si es text/event-stream
+     * */
+    private static boolean esFlujoEventos(MediaType tipo) {
+        return tipo != null && "text".equalsIgnoreCase(tipo.getType())
+                && "event-stream".equalsIgnoreCase(tipo.getSubtype());
+    }
+}
@@ -33,11 +33,15 @@ public class CorsFilter implements ContainerResponseFilter {
 
         // Métodos permitidos
         responseContext.getHeaders().add("Access-Control-Allow-Methods",
-                "GET, POST, PUT, DELETE, OPTIONS, HEAD");
+                "GET, POST, PUT, PATCH, DELETE, OPTIONS, HEAD");
 
         // Headers permitidos
         responseContext.getHeaders().add("Access-Control-Allow-Headers",
-                "Origin, X-Requested-With, Content-Type, Accept, Authorization");
+                "Origin, X-Requested-With, Content-Type, Accept, Authorization, If-None-Match, If-Modified-Since, If-Match, Last-Event-ID");
+
+        // Headers expuestos al cliente (cursor de paginación y versión para solicitudes condicionales)
+        responseContext.getHeaders().add("Access-Control-Expose-Headers",
+                "Link, X-Siguiente-Cursor, ETag, Last-Modified");
 
         // Permitir credenciales
         responseContext.getHeaders().add("Access-Control-Allow-Credentials", "true");
@@ -0,0 +1,170 @@
+package filter;
+
+import jakarta.annotation.Priority;
+import jakarta.servlet.ServletRequest;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import metricas.RegistroMetricas;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada MetricasFilter mide la latencia de cada solicitud y la
+ *              registra por ruta a nivel de plantilla (ej. GET /pacientes/{cedula}), junto con el
+ *              código de estado y las solicitudes en curso. La medición termina después de escribir
+ *              el cuerpo (interceptor de escritura, por fuera de la compresión), así que incluye la
+ *              serialización y el envío; las respuestas sin cuerpo terminan en el filtro de respuesta
+ *              y las que fallan antes de llegar a él, en MetricasListener.
+ * */
+
+@Provider
+@Priority(Priorities.AUTHENTICATION)
+public class MetricasFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+
+    // Propiedad de la solicitud donde se guarda la medición en curso (es un atributo del ServletRequest)
+    private static final String PROPIEDAD_MEDICION = MetricasFilter.class.getName() + ".medicion";
+
+    // Plantilla de ruta calculada una sola vez por método de recurso
+    private static final ConcurrentMap<Method, String> PLANTILLAS = new ConcurrentHashMap<>();
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    /*
+     * Método que registra el inicio de la solicitud, una vez resuelto el método de recurso
+     * @param requestContext Parámetro que define el contexto de la solicitud HTTP
+     * @throws IOException Si ocurre un error de entrada/salida durante el filtrado
+     * */
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        Method metodo = resourceInfo.getResourceMethod();
+        String plantilla = (metodo == null) ? "sin_ruta"
+                : PLANTILLAS.computeIfAbsent(metodo, m -> plantilla(resourceInfo.getResourceClass(), m));
+        RegistroMetricas.MetricasRuta ruta = RegistroMetricas.ruta(requestContext.getMethod(), plantilla);
+        requestContext.setProperty(PROPIEDAD_MEDICION, new Medicion(ruta));
+    }
+
+    /*
+     * Método que guarda el código de estado y, si la respuesta no tiene cuerpo, termina la medición
+     * @param requestContext Parámetro que define el contexto de la solicitud HTTP
+     * @param responseContext Parámetro que define el contexto de la respuesta HTTP
+     * @throws IOException Si ocurre un error de entrada/salida durante el filtrado
+     * */
+    @Override
+    public void filter(ContainerRequestContext requestContext,
+                       ContainerResponseContext responseContext) throws IOException {
+        Object medicion = requestContext.getProperty(PROPIEDAD_MEDICION);
+        if (medicion instanceof Medicion) {
+            Medicion actual = (Medicion) medicion;
+            actual.estado = responseContext.getStatus();
+            if (!responseContext.hasEntity()) {
+                actual.terminar();
+            }
+        } else {
+            // Solicitudes que no llegaron a un recurso (404 de enrutamiento, preflight, etc.)
+            RegistroMetricas.ruta(requestContext.getMethod(), "sin_ruta")
+                    .contar(responseContext.getStatus());
+        }
+    }
+
+    /*
+     * Método que termina la medición cuando el cuerpo ya se escribió, haya fallado o no la escritura
+     * @param context Parámetro que define el contexto de escritura de la entidad
+     * @throws IOException Si ocurre un error de entrada/salida al escribir
+     * */
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        try {
+            context.proceed();
+        } finally {
+            Object medicion = context.getProperty(PROPIEDAD_MEDICION);
+            if (medicion instanceof Medicion) {
+                ((Medicion) medicion).terminar();
+            }
+        }
+    }
+
+    /*
+     * Método que termina la medición de una solicitud que salió del contenedor sin terminarla
+     * (excepción sin ExceptionMapper, error al elegir el MessageBodyWriter); se cuenta como 500
+     * @param solicitud Parámetro que define la solicitud que termina
+     * */
+    static void terminarPendiente(ServletRequest solicitud) {
+        // Una solicitud asíncrona sale del primer despacho sin haber terminado; se cierra al completarse
+        if (solicitud.isAsyncStarted()) {
+            return;
+        }
+        Object medicion = solicitud.getAttribute(PROPIEDAD_MEDICION);
+        if (medicion instanceof Medicion) {
+            ((Medicion) medicion).terminar();
+        }
+    }
+
+    /*
+     * Método que arma la plantilla de ruta a partir de las anotaciones @Path de la clase y del método
+     * @param clase Parámetro que define la clase del recurso
+     * @param metodo Parámetro que define el método del recurso
+     * @return Plantilla de ruta, ej. /pacientes/{cedula}
+     * */
+    private static String plantilla(Class<?> clase, Method metodo) {
+        StringBuilder ruta = new StringBuilder();
+        Path pathClase = (clase == null) ? null : clase.getAnnotation(Path.class);
+        Path pathMetodo = metodo.getAnnotation(Path.class);
+        agregar(ruta, pathClase);
+        agregar(ruta, pathMetodo);
+        return (ruta.length() == 0) ? "/" : ruta.toString();
+    }
+
+    /*
+     * Método que agrega un segmento @Path normalizando las barras
+     * @param ruta Parámetro que define la ruta en construcción
+     * @param path Parámetro que define la anotación a agregar, puede ser null
+     * */
+    private static void agregar(StringBuilder ruta, Path path) {
+        if (path == null) {
+            return;
+        }
+        String valor = path.value();
+        if (!valor.startsWith("/")) {
+            ruta.append('/');
+        }
+        ruta.append(valor.endsWith("/") ? valor.substring(0, valor.length() - 1) : valor);
+    }
+
+    /*
+     * Clase interna con la medición de una solicitud; termina una sola vez aunque la terminen
+     * varios caminos (filtro de respuesta, interceptor de escritura y MetricasListener)
+     * */
+    private static final class Medicion {
+        private final RegistroMetricas.MetricasRuta ruta;
+        private final long inicio = System.nanoTime();
+        private final AtomicBoolean terminada = new AtomicBoolean();
+        private volatile int estado = 500;
+
+        private Medicion(RegistroMetricas.MetricasRuta ruta) {
+            this.ruta = ruta;
+            ruta.iniciar();
+        }
+
+        private void terminar() {
+            if (terminada.compareAndSet(false, true)) {
+                ruta.finalizar(estado, System.nanoTime() - inicio);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package filter;
+
+import jakarta.servlet.ServletRequestEvent;
+import jakarta.servlet.ServletRequestListener;
+import jakarta.servlet.annotation.WebListener;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada MetricasListener recibe el fin de cada solicitud en el
+ *              contenedor de servlets, también las asíncronas y las que terminaron con error, y
+ *              cierra la medición de MetricasFilter si ningún filtro la cerró. Así el número de
+ *              solicitudes en curso no queda contando solicitudes que ya terminaron.
+ * */
+
+@WebListener
+public class MetricasListener implements ServletRequestListener {
+
+    /*
+     * Método que se ejecuta cuando la solicitud sale del contenedor
+     * @param sre Parámetro que define el evento con la solicitud que termina
+     * */
+    @Override
+    public void requestDestroyed(ServletRequestEvent sre) {
+        MetricasFilter.terminarPendiente(sre.getServletRequest());
+    }
+}
@@ -0,0 +1,271 @@
+package filter;
+
+import config.Configuracion;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada SalidaComprimida es un flujo de salida que retiene los
+ *              primeros bytes de la respuesta hasta alcanzar un umbral: si la respuesta termina
+ *              antes se envía sin comprimir, y si lo supera se comprime con gzip o deflate.
+ *              Los Deflater y los buffers se reutilizan desde pools acotados, y flush() hace un
+ *              SYNC_FLUSH para que las respuestas en streaming lleguen al cliente por partes; un
+ *              flush antes del umbral inicia la compresión en lugar de retener los bytes.
+ * */
+
+final class SalidaComprimida extends OutputStream {
+
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+
+    private static final int NIVEL = Configuracion.entero("hospital.compresion.nivel", 6);
+    private static final int TAMANO_POOL = Configuracion.entero("hospital.compresion.pool", 32);
+    private static final int TAMANO_BUFFER = 8 * 1024;
+
+    // Cabecera gzip fija: magia, método deflate, sin banderas, sin fecha, SO desconocido
+    private static final byte[] CABECERA_GZIP = {
+            0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    // gzip usa deflate crudo (cabecera y CRC propios); "deflate" en HTTP es el formato zlib
+    private static final BlockingQueue<Deflater> POOL_GZIP = new ArrayBlockingQueue<>(TAMANO_POOL);
+    private static final BlockingQueue<Deflater> POOL_ZLIB = new ArrayBlockingQueue<>(TAMANO_POOL);
+    private static final BlockingQueue<byte[]> POOL_BUFFERS = new ArrayBlockingQueue<>(TAMANO_POOL * 2);
+
+    private final OutputStream destino;
+    private final String codificacion;
+    private final int umbral;
+    private final Runnable alComprimir;
+
+    private byte[] pendiente;
+    private int usados;
+    private Deflater deflater;
+    private CRC32 crc;
+    private byte[] salida;
+    private boolean comprimiendo;
+    private boolean terminada;
+
+    /*
+     * Constructor que envuelve el flujo de la respuesta
+     * @param destino Parámetro que define el flujo original de la respuesta
+     * @param codificacion Parámetro que define la codificación elegida (gzip o deflate)
+     * @param umbral Parámetro que define los bytes a partir de los cuales se comprime
+     * @param alComprimir Parámetro que define la acción que ajusta los headers antes del primer byte comprimido
+     * */
+    SalidaComprimida(OutputStream destino, String codificacion, int umbral, Runnable alComprimir) {
+        this.destino = destino;
+        this.codificacion = codificacion;
+        this.umbral = Math.min(Math.max(umbral, 0), TAMANO_BUFFER);
+        this.alComprimir = alComprimir;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] datos, int desde, int largo) throws IOException {
+        if (terminada) {
+            throw new IOException("La salida comprimida ya fue cerrada");
+        }
+        if (!comprimiendo) {
+            if (usados + largo <= umbral) {
+                if (pendiente == null) {
+                    pendiente = tomarBuffer();
+                }
+                System.arraycopy(datos, desde, pendiente, usados, largo);
+                usados += largo;
+                return;
+            }
+            iniciarCompresion();
+        }
+        comprimir(datos, desde, largo);
+    }
+
+    /*
+     * Método que envía al cliente lo escrito hasta ahora. Si todavía hay bytes retenidos bajo el
+     * umbral, el flush decide: se pasa a modo comprimido, ya que quien vacía a mitad de respuesta
+     * está enviando en streaming y lo que sigue suele superar el umbral. Sin datos retenidos no
+     * hace nada, para no enviar los headers antes de saber si la respuesta se comprimirá.
+     * @throws IOException Si ocurre un error al escribir en el flujo original
+     * */
+    @Override
+    public void flush() throws IOException {
+        if (terminada) {
+            return;
+        }
+        if (!comprimiendo && usados > 0) {
+            iniciarCompresion();
+        }
+        if (comprimiendo) {
+            vaciar(Deflater.SYNC_FLUSH);
+            destino.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            terminar();
+        } finally {
+            destino.close();
+        }
+    }
+
+    /*
+     * Método que completa la respuesta sin cerrar el flujo original: escribe lo retenido sin
+     * comprimir, o el final del bloque deflate y el pie gzip. Devuelve los recursos a los pools.
+     * @throws IOException Si ocurre un error al escribir en el flujo original
+     * */
+    void terminar() throws IOException {
+        if (terminada) {
+            return;
+        }
+        terminada = true;
+        try {
+            if (!comprimiendo) {
+                if (usados > 0) {
+                    destino.write(pendiente, 0, usados);
+                }
+                return;
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                int n = deflater.deflate(salida, 0, salida.length);
+                if (n > 0) {
+                    destino.write(salida, 0, n);
+                }
+            }
+            if (crc != null) {
+                escribirEntero(crc.getValue());
+                escribirEntero(deflater.getBytesRead());
+            }
+        } finally {
+            liberar();
+        }
+    }
+
+    /*
+     * Método que abandona una respuesta que falló a mitad de escritura: no escribe nada más y
+     * devuelve el Deflater y los buffers a sus pools. No hace nada si ya se terminó.
+     * */
+    void descartar() {
+        if (!terminada) {
+            terminada = true;
+            liberar();
+        }
+    }
+
+    /*
+     * Método que pasa a modo comprimido: ajusta los headers, escribe la cabecera gzip y
+     * comprime lo que estaba retenido
+     * @throws IOException Si ocurre un error al escribir en el flujo original
+     * */
+    private void iniciarCompresion() throws IOException {
+        comprimiendo = true;
+        alComprimir.run();
+        boolean gzip = GZIP.equals(codificacion);
+        deflater = tomarDeflater(gzip);
+        salida = tomarBuffer();
+        if (gzip) {
+            crc = new CRC32();
+            destino.write(CABECERA_GZIP);
+        }
+        if (usados > 0) {
+            comprimir(pendiente, 0, usados);
+            usados = 0;
+        }
+    }
+
+    /*
+     * Método que entrega datos al Deflater y escribe lo que vaya produciendo
+     * @param datos Parámetro que define el arreglo con los datos
+     * @param desde Parámetro que define la posición inicial
+     * @param largo Parámetro que define la cantidad de bytes
+     * @throws IOException Si ocurre un error al escribir en el flujo original
+     * */
+    private void comprimir(byte[] datos, int desde, int largo) throws IOException {
+        if (largo == 0) {
+            return;
+        }
+        if (crc != null) {
+            crc.update(datos, desde, largo);
+        }
+        deflater.setInput(datos, desde, largo);
+        while (!deflater.needsInput()) {
+            int n = deflater.deflate(salida, 0, salida.length, Deflater.NO_FLUSH);
+            if (n > 0) {
+                destino.write(salida, 0, n);
+            }
+        }
+    }
+
+    /*
+     * Método que vacía el Deflater con el modo indicado hasta que no quede salida pendiente
+     * @param modo Parámetro que define el modo de vaciado (SYNC_FLUSH)
+     * @throws IOException Si ocurre un error al escribir en el flujo original
+     * */
+    private void vaciar(int modo) throws IOException {
+        int n;
+        do {
+            n = deflater.deflate(salida, 0, salida.length, modo);
+            if (n > 0) {
+                destino.write(salida, 0, n);
+            }
+        } while (n == salida.length);
+    }
+
+    /*
+     * Método que escribe un entero de 32 bits en little endian (pie gzip)
+     * @param valor Parámetro que define el valor a escribir, se toman los 32 bits bajos
+     * @throws IOException Si ocurre un error al escribir en el flujo original
+     * */
+    private void escribirEntero(long valor) throws IOException {
+        destino.write((int) valor & 0xff);
+        destino.write((int) (valor >>> 8) & 0xff);
+        destino.write((int) (valor >>> 16) & 0xff);
+        destino.write((int) (valor >>> 24) & 0xff);
+    }
+
+    /*
+     * Método que devuelve el Deflater y los buffers a sus pools
+     * */
+    private void liberar() {
+        if (deflater != null) {
+            deflater.reset();
+            BlockingQueue<Deflater> pool = (crc != null) ? POOL_GZIP : POOL_ZLIB;
+            if (!pool.offer(deflater)) {
+                deflater.end();
+            }
+            deflater = null;
+        }
+        devolverBuffer(pendiente);
+        devolverBuffer(salida);
+        pendiente = null;
+        salida = null;
+    }
+
+    private static Deflater tomarDeflater(boolean gzip) {
+        Deflater deflater = (gzip ? POOL_GZIP : POOL_ZLIB).poll();
+        return (deflater != null) ? deflater : new Deflater(NIVEL, gzip);
+    }
+
+    private static byte[] tomarBuffer() {
+        byte[] buffer = POOL_BUFFERS.poll();
+        return (buffer != null) ? buffer : new byte[TAMANO_BUFFER];
+    }
+
+    private static void devolverBuffer(byte[] buffer) {
+        if (buffer != null) {
+            POOL_BUFFERS.offer(buffer);
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package importacion;
+
+import config.Configuracion;
+import dao.PacienteDAO;
+import dao.ResultadoInsercion;
+import jakarta.json.Json;
+import jakarta.json.JsonObjectBuilder;
+import model.Paciente;
+import model.ResultadoRegistro;
+import validacion.ValidadorPaciente;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada ImportadorCsv registra pacientes desde un archivo CSV que se
+ *              lee en streaming. Un hilo lee y valida las filas y las agrupa en bloques; el hilo de
+ *              la solicitud toma los bloques de una cola acotada, los inserta con los lotes JDBC de
+ *              PacienteDAO y escribe el avance en NDJSON. Si la base de datos va más lenta que el
+ *              cliente, la cola se llena y se deja de leer la solicitud, así la memoria no crece con
+ *              el tamaño del archivo.
+ * */
+
+public final class ImportadorCsv {
+
+    // Filas por bloque entre el lector y el escritor; coincide con el lote de PacienteDAO
+    private static final int FILAS_POR_BLOQUE = Configuracion.entero("hospital.lote.tamano", 500);
+
+    // Bloques que pueden esperar en la cola; limita la memoria a unas pocas miles de filas
+    private static final int BLOQUES_EN_COLA = Configuracion.entero("hospital.importacion.bloquesEnCola", 4);
+
+    // Importaciones simultáneas permitidas; cada una ocupa una conexión durante toda la carga
+    private static final Semaphore PERMISOS =
+            new Semaphore(Configuracion.entero("hospital.importacion.maxConcurrentes", 2));
+
+    private static final int LARGO_MAXIMO_CAMPO = 1_000;
+
+    // Cada cuánto el escritor, mientras espera un bloque, comprueba que el lector siga vivo
+    private static final long ESPERA_BLOQUE_MS = 100;
+
+    // Columnas esperadas cuando el archivo no trae encabezado
+    private static final String[] COLUMNAS = {"cedula", "nombre", "correo", "edad", "direccion"};
+
+    private static final ExecutorService LECTORES = Executors.newCachedThreadPool(tarea -> {
+        Thread hilo = new Thread(tarea, "hospital-importacion");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private final PacienteDAO pacienteDAO = new PacienteDAO();
+    private final char separador;
+
+    /*
+     * Constructor que define el formato del archivo
+     * @param separador Parámetro que define el separador de campos (, o ;)
+     * */
+    public ImportadorCsv(char separador) {
+        this.separador = separador;
+    }
+
+    /*
+     * Método que intenta reservar un cupo de importación
+     * @return true si se obtuvo el cupo; debe liberarse con liberar()
+     * */
+    public static boolean reservar() {
+        return PERMISOS.tryAcquire();
+    }
+
+    /*
+     * Método que libera un cupo reservado con reservar()
+     * */
+    public static void liberar() {
+        PERMISOS.release();
+    }
+
+    /*
+     * Método que importa el archivo y escribe el avance. Cada línea de la salida es un objeto
+     * JSON con "tipo": "rechazo" (fila inválida o duplicada), "progreso" (después de cada bloque),
+     * "resumen" (al terminar) o "error" (el archivo no se pudo leer; lo anterior ya quedó guardado).
+     * @param entrada Parámetro que define el cuerpo de la solicitud en UTF-8
+     * @param salida Parámetro que define el cuerpo de la respuesta
+     * @throws IOException Si no se puede escribir la respuesta
+     * */
+    public void importar(InputStream entrada, OutputStream salida) throws IOException {
+        long inicio = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        BlockingQueue<Bloque> cola = new ArrayBlockingQueue<>(BLOQUES_EN_COLA);
+        Future<?> lector = LECTORES.submit(() -> {
+            leer(entrada, cola);
+            return null;
+        });
+
+        int filas = 0;
+        int creados = 0;
+        int rechazados = 0;
+        try {
+            while (true) {
+                Bloque bloque = siguienteBloque(cola, lector, filas);
+                for (ResultadoRegistro rechazo : bloque.rechazos) {
+                    escribir(writer, rechazo(rechazo));
+                    rechazados++;
+                }
+                if (!bloque.pacientes.isEmpty()) {
+                    ResultadoInsercion[] resultados = pacienteDAO.createLote(bloque.pacientes);
+                    for (int i = 0; i < resultados.length; i++) {
+                        if (resultados[i] == ResultadoInsercion.CREADO) {
+                            creados++;
+                            continue;
+                        }
+                        escribir(writer, rechazo(aRechazo(bloque.filas.get(i),
+                                bloque.pacientes.get(i).getCedula(), resultados[i])));
+                        rechazados++;
+                    }
+                }
+                filas = bloque.ultimaFila;
+
+                if (bloque.error != null) {
+                    escribir(writer, Json.createObjectBuilder()
+                            .add("tipo", "error")
+                            .add("fila", filas + 1)
+                            .add("error", bloque.error));
+                    break;
+                }
+                if (bloque.fin) {
+                    escribir(writer, Json.createObjectBuilder()
+                            .add("tipo", "resumen")
+                            .add("filas", filas)
+                            .add("creados", creados)
+                            .add("rechazados", rechazados)
+                            .add("ms", (System.nanoTime() - inicio) / 1_000_000));
+                    break;
+                }
+                escribir(writer, Json.createObjectBuilder()
+                        .add("tipo", "progreso")
+                        .add("filas", filas)
+                        .add("creados", creados)
+                        .add("rechazados", rechazados));
+                writer.flush();
+            }
+            writer.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importación interrumpida", e);
+        } finally {
+            // Si el cliente se desconectó, el lector puede estar bloqueado esperando espacio en la cola
+            lector.cancel(true);
+            cola.clear();
+        }
+
+        try {
+            lector.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | CancellationException e) {
+            // El error del lector ya se informó en la respuesta
+        }
+    }
+
+    /*
+     * Método que espera el siguiente bloque del lector. Si el lector terminó sin entregar el
+     * bloque final (un Error que leer no captura), devuelve un bloque de error en lugar de
+     * esperar para siempre con el cupo de importación tomado.
+     * @param cola Parámetro que define la cola acotada desde el lector
+     * @param lector Parámetro que define la tarea del hilo lector
+     * @param filas Parámetro que define la última fila procesada, para informar el error
+     * @return Siguiente bloque a insertar
+     * @throws InterruptedException Si se interrumpe el hilo de la solicitud mientras espera
+     * */
+    private static Bloque siguienteBloque(BlockingQueue<Bloque> cola, Future<?> lector, int filas)
+            throws InterruptedException {
+        while (true) {
+            Bloque bloque = cola.poll(ESPERA_BLOQUE_MS, TimeUnit.MILLISECONDS);
+            if (bloque != null) {
+                return bloque;
+            }
+            if (lector.isDone()) {
+                // El lector pudo dejar su último bloque justo después de que venció la espera
+                bloque = cola.poll();
+                if (bloque == null) {
+                    bloque = new Bloque();
+                    bloque.ultimaFila = filas;
+                    bloque.error = "No se pudo leer el archivo";
+                }
+                return bloque;
+            }
+        }
+    }
+
+    /*
+     * Método que ejecuta el hilo lector: interpreta el CSV, valida cada fila y entrega bloques
+     * @param entrada Parámetro que define el cuerpo de la solicitud
+     * @param cola Parámetro que define la cola acotada hacia el escritor
+     * @throws InterruptedException Si se cancela la importación mientras espera espacio en la cola
+     * */
+    private void leer(InputStream entrada, BlockingQueue<Bloque> cola) throws InterruptedException {
+        LectorCsv lector = new LectorCsv(new InputStreamReader(entrada, StandardCharsets.UTF_8),
+                separador, LARGO_MAXIMO_CAMPO);
+        Bloque bloque = new Bloque();
+        try {
+            List<String> campos = lector.siguiente();
+            int[] posiciones = (campos == null) ? null : encabezado(campos);
+            if (posiciones == null) {
+                posiciones = new int[]{0, 1, 2, 3, 4};
+            } else {
+                for (int i = 0; i < posiciones.length; i++) {
+                    if (posiciones[i] < 0 && i < 4) {
+                        bloque.error = "Falta la columna " + COLUMNAS[i] + " en el encabezado";
+                        cola.put(bloque);
+                        return;
+                    }
+                }
+                bloque.ultimaFila = lector.getFila();
+                campos = lector.siguiente();
+            }
+
+            while (campos != null) {
+                int fila = lector.getFila();
+                bloque.ultimaFila = fila;
+                if (!(campos.size() == 1 && campos.get(0).trim().isEmpty())) {
+                    procesarFila(fila, campos, posiciones, bloque);
+                }
+                if (bloque.pacientes.size() + bloque.rechazos.size() >= FILAS_POR_BLOQUE) {
+                    cola.put(bloque);
+                    Bloque siguiente = new Bloque();
+                    siguiente.ultimaFila = bloque.ultimaFila;
+                    bloque = siguiente;
+                }
+                campos = lector.siguiente();
+            }
+            bloque.fin = true;
+        } catch (IOException | RuntimeException e) {
+            bloque.error = (e.getMessage() != null) ? e.getMessage() : "No se pudo leer el archivo";
+        }
+        cola.put(bloque);
+    }
+
+    /*
+     * Método que convierte y valida una fila, dejándola en el bloque como paciente o como rechazo
+     * @param fila Parámetro que define el número de fila en el archivo
+     * @param campos Parámetro que define los campos de la fila
+     * @param posiciones Parámetro que define la posición de cada columna esperada
+     * @param bloque Parámetro que define el bloque en construcción
+     * */
+    private static void procesarFila(int fila, List<String> campos, int[] posiciones, Bloque bloque) {
+        String cedula = campo(campos, posiciones[0]);
+        Paciente paciente = new Paciente();
+        paciente.setCedula(cedula);
+        paciente.setNombre(campo(campos, posiciones[1]));
+        paciente.setCorreo(campo(campos, posiciones[2]));
+        paciente.setDireccion(campo(campos, posiciones[4]));
+        try {
+            String edad = campo(campos, posiciones[3]);
+            paciente.setEdad((edad == null) ? 0 : Integer.parseInt(edad));
+        } catch (NumberFormatException e) {
+            bloque.rechazos.add(new ResultadoRegistro(fila, cedula, ResultadoRegistro.INVALIDO,
+                    "Edad debe ser un número entero"));
+            return;
+        }
+
+        String error = ValidadorPaciente.validar(paciente);
+        if (error != null) {
+            bloque.rechazos.add(new ResultadoRegistro(fila, cedula, ResultadoRegistro.INVALIDO, error));
+            return;
+        }
+        bloque.pacientes.add(paciente);
+        bloque.filas.add(fila);
+    }
+
+    /*
+     * Método que interpreta la primera fila como encabezado si nombra la columna cedula
+     * @param campos Parámetro que define los campos de la primera fila
+     * @return Posición de cada columna esperada (-1 si falta), o null si la fila no es encabezado
+     * */
+    private static int[] encabezado(List<String> campos) {
+        int[] posiciones = {-1, -1, -1, -1, -1};
+        boolean esEncabezado = false;
+        for (int i = 0; i < campos.size(); i++) {
+            String nombre = campos.get(i).trim().toLowerCase(Locale.ROOT).replace("é", "e");
+            for (int j = 0; j < COLUMNAS.length; j++) {
+                if (COLUMNAS[j].equals(nombre)) {
+                    posiciones[j] = i;
+                    esEncabezado |= (j == 0);
+                }
+            }
+        }
+        return esEncabezado ? posiciones : null;
+    }
+
+    /*
+     * Método que obtiene un campo sin espacios al inicio ni al final
+     * @param campos Parámetro que define los campos de la fila
+     * @param posicion Parámetro que define la posición del campo, -1 si la columna no existe
+     * @return Valor del campo, o null si no existe o está vacío
+     * */
+    private static String campo(List<String> campos, int posicion) {
+        if (posicion < 0 || posicion >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(posicion).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    /*
+     * Método que traduce un resultado de inserción fallido a un rechazo
+     * @param fila Parámetro que define el número de fila en el archivo
+     * @param cedula Parámetro que define la cédula del paciente
+     * @param resultado Parámetro que define el resultado devuelto por el DAO
+     * @return Rechazo para el informe
+     * */
+    private static ResultadoRegistro aRechazo(int fila, String cedula, ResultadoInsercion resultado) {
+        switch (resultado) {
+            case CEDULA_DUPLICADA:
+                return new ResultadoRegistro(fila, cedula, ResultadoRegistro.CONFLICTO, "La cédula ya está registrada");
+            case CORREO_DUPLICADO:
+                return new ResultadoRegistro(fila, cedula, ResultadoRegistro.CONFLICTO, "El correo ya está registrado");
+            default:
+                return new ResultadoRegistro(fila, cedula, ResultadoRegistro.ERROR, "Error al crear paciente en la base de datos");
+        }
+    }
+
+    private static JsonObjectBuilder rechazo(ResultadoRegistro rechazo) {
+        JsonObjectBuilder linea = Json.createObjectBuilder()
+                .add("tipo", "rechazo")
+                .add("fila", rechazo.getIndice())
+                .add("estado", rechazo.getEstado())
+                .add("error", rechazo.getError());
+        if (rechazo.getCedula() != null) {
+            linea.add("cedula", rechazo.getCedula());
+        }
+        return linea;
+    }
+
+    private static void escribir(Writer writer, JsonObjectBuilder linea) throws IOException {
+        writer.write(linea.build().toString());
+        writer.write('\n');
+    }
+
+    /*
+     * Grupo de filas leídas: pacientes válidos con su número de fila y rechazos de validación
+     * */
+    private static final class Bloque {
+        final List<Paciente> pacientes = new ArrayList<>(FILAS_POR_BLOQUE);
+        final List<Integer> filas = new ArrayList<>(FILAS_POR_BLOQUE);
+        final List<ResultadoRegistro> rechazos = new ArrayList<>();
+        int ultimaFila;
+        boolean fin;
+        String error;
+    }
+}
@@ -0,0 +1,136 @@
+package importacion;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada LectorCsv lee un archivo CSV (RFC 4180) fila por fila
+ *              desde un Reader, sin cargar el archivo en memoria. Soporta campos entre comillas
+ *              con separadores, saltos de línea y comillas dobles escapadas, finales de línea
+ *              LF o CRLF, y descarta la marca BOM inicial. Cada campo tiene un largo máximo para
+ *              que una comilla sin cerrar no acumule el resto del archivo.
+ * */
+
+public class LectorCsv {
+
+    private static final int SIN_DEVOLVER = -2;
+
+    private final Reader entrada;
+    private final char separador;
+    private final int largoMaximoCampo;
+
+    private final char[] buffer = new char[8 * 1024];
+    private int posicion;
+    private int limite;
+    private int devuelto = SIN_DEVOLVER;
+    private boolean inicio = true;
+
+    private final StringBuilder campo = new StringBuilder(64);
+    private int fila;
+
+    /*
+     * Constructor que prepara la lectura
+     * @param entrada Parámetro que define el texto CSV
+     * @param separador Parámetro que define el separador de campos (, o ;)
+     * @param largoMaximoCampo Parámetro que define el máximo de caracteres por campo
+     * */
+    public LectorCsv(Reader entrada, char separador, int largoMaximoCampo) {
+        this.entrada = entrada;
+        this.separador = separador;
+        this.largoMaximoCampo = largoMaximoCampo;
+    }
+
+    /*
+     * Método que lee la siguiente fila del archivo
+     * @return Campos de la fila, o null si se llegó al final del archivo
+     * @throws IOException Si falla la lectura o el CSV está mal formado
+     * */
+    public List<String> siguiente() throws IOException {
+        int c = leer();
+        if (inicio) {
+            inicio = false;
+            if (c == '\uFEFF') {
+                c = leer();
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        fila++;
+        List<String> campos = new ArrayList<>(6);
+        campo.setLength(0);
+        boolean entreComillas = false;
+        while (true) {
+            if (entreComillas) {
+                if (c == -1) {
+                    throw new IOException("Comillas sin cerrar en la fila " + fila);
+                }
+                if (c == '"') {
+                    int siguiente = leer();
+                    if (siguiente != '"') {
+                        entreComillas = false;
+                        c = siguiente;
+                        continue;
+                    }
+                }
+                agregar(c);
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                campos.add(campo.toString());
+                return campos;
+            } else if (c == '\r') {
+                int siguiente = leer();
+                if (siguiente != '\n') {
+                    devuelto = siguiente;
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else if (c == '"' && campo.length() == 0) {
+                entreComillas = true;
+            } else {
+                agregar(c);
+            }
+            c = leer();
+        }
+    }
+
+    /*
+     * Método que obtiene el número de la última fila leída (la primera es 1)
+     * @return Número de fila dentro del archivo
+     * */
+    public int getFila() {
+        return fila;
+    }
+
+    private void agregar(int c) throws IOException {
+        if (campo.length() >= largoMaximoCampo) {
+            throw new IOException("Campo de más de " + largoMaximoCampo + " caracteres en la fila " + fila);
+        }
+        campo.append((char) c);
+    }
+
+    private int leer() throws IOException {
+        if (devuelto != SIN_DEVOLVER) {
+            int c = devuelto;
+            devuelto = SIN_DEVOLVER;
+            return c;
+        }
+        if (posicion == limite) {
+            limite = entrada.read(buffer, 0, buffer.length);
+            posicion = 0;
+            if (limite <= 0) {
+                limite = 0;
+                return -1;
+            }
+        }
+        return buffer[posicion++];
+    }
+}
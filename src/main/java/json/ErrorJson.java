@@ -0,0 +1,67 @@
+package json;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada ErrorJson arma los cuerpos de error {"error": "..."} con el
+ *              mensaje escapado, para que un texto con comillas, barras o saltos de línea (por
+ *              ejemplo el mensaje de una excepción) no produzca un JSON inválido.
+ * */
+
+public final class ErrorJson {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /*
+     * Constructor privado: clase de utilidades estáticas
+     * */
+    private ErrorJson() {
+    }
+
+    /*
+     * Método que arma el cuerpo de error con el formato usado en toda la API
+     * @param mensaje Parámetro que define el mensaje para el cliente
+     * @return Documento JSON con el campo error
+     * */
+    public static String cuerpo(String mensaje) {
+        StringBuilder json = new StringBuilder(mensaje.length() + 16);
+        json.append("{\"error\": \"");
+        escapar(mensaje, json);
+        return json.append("\"}").toString();
+    }
+
+    /*
+     * Método que agrega un texto escapado según las reglas de JSON
+     * @param texto Parámetro que define el texto a escapar
+     * @param destino Parámetro que define dónde se agrega el texto escapado
+     * */
+    public static void escapar(String texto, StringBuilder destino) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"':
+                    destino.append("\\\"");
+                    break;
+                case '\\':
+                    destino.append("\\\\");
+                    break;
+                case '\n':
+                    destino.append("\\n");
+                    break;
+                case '\r':
+                    destino.append("\\r");
+                    break;
+                case '\t':
+                    destino.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        destino.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xf]);
+                    } else {
+                        destino.append(c);
+                    }
+            }
+        }
+    }
+}
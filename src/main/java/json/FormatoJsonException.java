@@ -0,0 +1,20 @@
+package json;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada FormatoJsonException indica que un documento JSON recibido
+ *              no tiene la forma esperada (tipo de un campo, objeto incompleto, etc.).
+ * */
+
+public class FormatoJsonException extends RuntimeException {
+
+    /*
+     * Constructor con el mensaje que se devolverá al cliente
+     * @param mensaje Parámetro que define la descripción del problema
+     * */
+    public FormatoJsonException(String mensaje) {
+        super(mensaje);
+    }
+}
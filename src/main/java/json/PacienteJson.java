@@ -0,0 +1,319 @@
+package json;
+
+import jakarta.json.Json;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParserFactory;
+import model.CamposPaciente;
+import model.Paciente;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada PacienteJson convierte pacientes a JSON y desde JSON sin
+ *              reflexión. La escritura usa los nombres de campo ya codificados en bytes y produce
+ *              el mismo documento que JSON-B (campos en orden alfabético y sin valores null); la
+ *              lectura recorre los eventos del parser de JSON-P y asigna cada campo por nombre.
+ * */
+
+public final class PacienteJson {
+
+    // Nombres de campo precodificados, en el orden alfabético que usa JSON-B por defecto
+    private static final byte[] ACTIVO = bytes("\"activo\":");
+    private static final byte[] CEDULA = bytes("\"cedula\":");
+    private static final byte[] CORREO = bytes("\"correo\":");
+    private static final byte[] DIRECCION = bytes("\"direccion\":");
+    private static final byte[] EDAD = bytes("\"edad\":");
+    private static final byte[] FECHA_ACTUALIZACION = bytes("\"fechaActualizacion\":");
+    private static final byte[] FECHA_CREACION = bytes("\"fechaCreacion\":");
+    private static final byte[] NOMBRE = bytes("\"nombre\":");
+
+    private static final JsonParserFactory PARSERS = Json.createParserFactory(null);
+
+    /*
+     * Constructor privado: clase de utilidades estáticas
+     * */
+    private PacienteJson() {
+    }
+
+    /*
+     * Método que escribe un paciente como objeto JSON
+     * @param paciente Parámetro que define el paciente a escribir, puede ser null
+     * @param salida Parámetro que define la salida JSON
+     * @throws IOException Si falla la escritura
+     * */
+    public static void escribir(Paciente paciente, SalidaJson salida) throws IOException {
+        escribir(paciente, salida, CamposPaciente.TODOS);
+    }
+
+    /*
+     * Método que escribe solo algunos campos de un paciente como objeto JSON
+     * @param paciente Parámetro que define el paciente a escribir, puede ser null
+     * @param salida Parámetro que define la salida JSON
+     * @param campos Parámetro que define la máscara de CamposPaciente a escribir
+     * @throws IOException Si falla la escritura
+     * */
+    public static void escribir(Paciente paciente, SalidaJson salida, int campos) throws IOException {
+        if (paciente == null) {
+            salida.nulo();
+            return;
+        }
+        boolean primero = true;
+        if ((campos & CamposPaciente.ACTIVO) != 0) {
+            primero = campo(ACTIVO, primero, salida);
+            salida.booleano(paciente.isActivo());
+        }
+        if ((campos & CamposPaciente.CEDULA) != 0 && paciente.getCedula() != null) {
+            primero = campo(CEDULA, primero, salida);
+            salida.texto(paciente.getCedula());
+        }
+        if ((campos & CamposPaciente.CORREO) != 0 && paciente.getCorreo() != null) {
+            primero = campo(CORREO, primero, salida);
+            salida.texto(paciente.getCorreo());
+        }
+        if ((campos & CamposPaciente.DIRECCION) != 0 && paciente.getDireccion() != null) {
+            primero = campo(DIRECCION, primero, salida);
+            salida.texto(paciente.getDireccion());
+        }
+        if ((campos & CamposPaciente.EDAD) != 0) {
+            primero = campo(EDAD, primero, salida);
+            salida.numero(paciente.getEdad());
+        }
+        if ((campos & CamposPaciente.FECHA_ACTUALIZACION) != 0 && paciente.getFechaActualizacion() != null) {
+            primero = campo(FECHA_ACTUALIZACION, primero, salida);
+            salida.fecha(paciente.getFechaActualizacion());
+        }
+        if ((campos & CamposPaciente.FECHA_CREACION) != 0 && paciente.getFechaCreacion() != null) {
+            primero = campo(FECHA_CREACION, primero, salida);
+            salida.fecha(paciente.getFechaCreacion());
+        }
+        if ((campos & CamposPaciente.NOMBRE) != 0 && paciente.getNombre() != null) {
+            primero = campo(NOMBRE, primero, salida);
+            salida.texto(paciente.getNombre());
+        }
+        if (primero) {
+            salida.ascii('{');
+        }
+        salida.ascii('}');
+    }
+
+    /*
+     * Método que escribe una colección de pacientes como arreglo JSON
+     * @param pacientes Parámetro que define los pacientes a escribir
+     * @param salida Parámetro que define la salida JSON
+     * @throws IOException Si falla la escritura
+     * */
+    public static void escribirLista(Collection<Paciente> pacientes, SalidaJson salida) throws IOException {
+        escribirLista(pacientes, salida, CamposPaciente.TODOS);
+    }
+
+    /*
+     * Método que escribe una colección de pacientes como arreglo JSON con solo algunos campos
+     * @param pacientes Parámetro que define los pacientes a escribir
+     * @param salida Parámetro que define la salida JSON
+     * @param campos Parámetro que define la máscara de CamposPaciente a escribir
+     * @throws IOException Si falla la escritura
+     * */
+    public static void escribirLista(Collection<Paciente> pacientes, SalidaJson salida, int campos)
+            throws IOException {
+        salida.ascii('[');
+        boolean primero = true;
+        for (Paciente paciente : pacientes) {
+            if (!primero) {
+                salida.ascii(',');
+            }
+            primero = false;
+            escribir(paciente, salida, campos);
+        }
+        salida.ascii(']');
+    }
+
+    /*
+     * Método que escribe un mapa cédula -> paciente como objeto JSON; las cédulas sin paciente
+     * se escriben con valor null explícito
+     * @param pacientes Parámetro que define el mapa a escribir, en el orden de iteración
+     * @param salida Parámetro que define la salida JSON
+     * @throws IOException Si falla la escritura
+     * */
+    public static void escribirMapa(Map<String, Paciente> pacientes, SalidaJson salida) throws IOException {
+        salida.ascii('{');
+        boolean primero = true;
+        for (Map.Entry<String, Paciente> entrada : pacientes.entrySet()) {
+            if (!primero) {
+                salida.ascii(',');
+            }
+            primero = false;
+            salida.texto(entrada.getKey());
+            salida.ascii(':');
+            escribir(entrada.getValue(), salida);
+        }
+        salida.ascii('}');
+    }
+
+    /*
+     * Método que crea un parser de JSON-P sobre un flujo (detecta la codificación del texto)
+     * @param entrada Parámetro que define el flujo con el documento JSON
+     * @return Parser listo para leer
+     * */
+    public static JsonParser parser(InputStream entrada) {
+        return PARSERS.createParser(entrada);
+    }
+
+    /*
+     * Método que lee un paciente; el parser debe estar justo antes de su START_OBJECT o null
+     * @param parser Parámetro que define el parser de JSON-P
+     * @return Paciente leído, o null si el valor es null
+     * @throws FormatoJsonException Si el documento no tiene la forma esperada
+     * */
+    public static Paciente leer(JsonParser parser) {
+        return leerObjeto(parser, siguiente(parser));
+    }
+
+    /*
+     * Método que lee un arreglo de pacientes; el parser debe estar justo antes de su START_ARRAY
+     * @param parser Parámetro que define el parser de JSON-P
+     * @return Lista de pacientes, o null si el valor es null
+     * @throws FormatoJsonException Si el documento no tiene la forma esperada
+     * */
+    public static List<Paciente> leerLista(JsonParser parser) {
+        JsonParser.Event evento = siguiente(parser);
+        if (evento == JsonParser.Event.VALUE_NULL) {
+            return null;
+        }
+        if (evento != JsonParser.Event.START_ARRAY) {
+            throw new FormatoJsonException("Se esperaba un arreglo de pacientes");
+        }
+        List<Paciente> pacientes = new ArrayList<>();
+        while ((evento = siguiente(parser)) != JsonParser.Event.END_ARRAY) {
+            pacientes.add(leerObjeto(parser, evento));
+        }
+        return pacientes;
+    }
+
+    /*
+     * Método que lee los campos de un paciente a partir del evento ya consumido
+     * @param parser Parámetro que define el parser de JSON-P
+     * @param evento Parámetro que define el evento con el que empieza el valor
+     * @return Paciente leído, o null si el valor es null
+     * */
+    private static Paciente leerObjeto(JsonParser parser, JsonParser.Event evento) {
+        if (evento == JsonParser.Event.VALUE_NULL) {
+            return null;
+        }
+        if (evento != JsonParser.Event.START_OBJECT) {
+            throw new FormatoJsonException("Se esperaba un objeto paciente");
+        }
+        Paciente paciente = new Paciente();
+        while ((evento = siguiente(parser)) != JsonParser.Event.END_OBJECT) {
+            String campo = parser.getString();
+            evento = siguiente(parser);
+            switch (campo) {
+                case "cedula":
+                    paciente.setCedula(texto(parser, evento, campo));
+                    break;
+                case "nombre":
+                    paciente.setNombre(texto(parser, evento, campo));
+                    break;
+                case "correo":
+                    paciente.setCorreo(texto(parser, evento, campo));
+                    break;
+                case "direccion":
+                    paciente.setDireccion(texto(parser, evento, campo));
+                    break;
+                case "edad":
+                    paciente.setEdad(entero(parser, evento, campo));
+                    break;
+                case "activo":
+                    paciente.setActivo(booleano(evento, campo));
+                    break;
+                case "fechaCreacion":
+                    paciente.setFechaCreacion(fecha(parser, evento, campo));
+                    break;
+                case "fechaActualizacion":
+                    paciente.setFechaActualizacion(fecha(parser, evento, campo));
+                    break;
+                default:
+                    // Campos desconocidos se ignoran, igual que en JSON-B
+                    if (evento == JsonParser.Event.START_OBJECT) {
+                        parser.skipObject();
+                    } else if (evento == JsonParser.Event.START_ARRAY) {
+                        parser.skipArray();
+                    }
+            }
+        }
+        return paciente;
+    }
+
+    private static JsonParser.Event siguiente(JsonParser parser) {
+        if (!parser.hasNext()) {
+            throw new FormatoJsonException("El documento JSON está incompleto");
+        }
+        return parser.next();
+    }
+
+    private static String texto(JsonParser parser, JsonParser.Event evento, String campo) {
+        if (evento == JsonParser.Event.VALUE_NULL) {
+            return null;
+        }
+        if (evento != JsonParser.Event.VALUE_STRING) {
+            throw new FormatoJsonException("El campo " + campo + " debe ser texto");
+        }
+        return parser.getString();
+    }
+
+    private static int entero(JsonParser parser, JsonParser.Event evento, String campo) {
+        try {
+            if (evento == JsonParser.Event.VALUE_NUMBER && parser.isIntegralNumber()) {
+                return parser.getInt();
+            }
+            if (evento == JsonParser.Event.VALUE_STRING) {
+                return Integer.parseInt(parser.getString().trim());
+            }
+        } catch (NumberFormatException e) {
+            // Se informa abajo con el mismo mensaje
+        }
+        throw new FormatoJsonException("El campo " + campo + " debe ser un número entero");
+    }
+
+    private static boolean booleano(JsonParser.Event evento, String campo) {
+        if (evento == JsonParser.Event.VALUE_TRUE) {
+            return true;
+        }
+        if (evento == JsonParser.Event.VALUE_FALSE) {
+            return false;
+        }
+        throw new FormatoJsonException("El campo " + campo + " debe ser true o false");
+    }
+
+    private static LocalDateTime fecha(JsonParser parser, JsonParser.Event evento, String campo) {
+        String valor = texto(parser, evento, campo);
+        try {
+            return (valor == null) ? null : LocalDateTime.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new FormatoJsonException("El campo " + campo + " debe ser una fecha ISO");
+        }
+    }
+
+    /*
+     * Método que escribe el separador ('{' para el primer campo, ',' para los demás) y el nombre
+     * @return false, para guardarlo como nuevo valor de "primero"
+     * */
+    private static boolean campo(byte[] nombre, boolean primero, SalidaJson salida) throws IOException {
+        salida.ascii(primero ? '{' : ',');
+        salida.bytes(nombre);
+        return false;
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,143 @@
+package json;
+
+import jakarta.json.JsonException;
+import jakarta.json.stream.JsonParser;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+import model.Paciente;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada PacienteJsonProvider reemplaza a JSON-B para Paciente y
+ *              List<Paciente> en las solicitudes y respuestas application/json. Escribe con
+ *              PacienteJson directamente sobre el flujo de la respuesta y lee con el parser de
+ *              JSON-P, sin reflexión. También escribe las respuestas con ?fields= (Proyeccion) y
+ *              los mapas cédula -> paciente de la consulta múltiple.
+ *              Los demás tipos siguen usando el proveedor del servidor.
+ * */
+
+@Provider
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class PacienteJsonProvider implements MessageBodyWriter<Object>, MessageBodyReader<Object> {
+
+    private static final int TAMANO_BUFFER = 8 * 1024;
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return Paciente.class.isAssignableFrom(type)
+                || Proyeccion.class == type
+                || (Collection.class.isAssignableFrom(type) && esColeccionDePacientes(genericType))
+                || (Map.class.isAssignableFrom(type) && esMapaDePacientes(genericType));
+    }
+
+    @Override
+    public void writeTo(Object entidad, Class<?> type, Type genericType, Annotation[] annotations,
+                        MediaType mediaType, MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException {
+        SalidaJson salida = new SalidaJson(entityStream, TAMANO_BUFFER);
+        if (entidad instanceof Paciente) {
+            PacienteJson.escribir((Paciente) entidad, salida);
+        } else if (entidad instanceof Proyeccion) {
+            escribirProyeccion((Proyeccion) entidad, salida);
+        } else if (entidad instanceof Map) {
+            @SuppressWarnings("unchecked")
+            Map<String, Paciente> pacientes = (Map<String, Paciente>) entidad;
+            PacienteJson.escribirMapa(pacientes, salida);
+        } else {
+            @SuppressWarnings("unchecked")
+            Collection<Paciente> pacientes = (Collection<Paciente>) entidad;
+            PacienteJson.escribirLista(pacientes, salida);
+        }
+        salida.vaciar();
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == Paciente.class
+                || (type.isAssignableFrom(List.class) && esColeccionDePacientes(genericType));
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                           MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        // Un cuerpo vacío se entrega como null, igual que con JSON-B, para que la validación lo informe
+        PushbackInputStream entrada = new PushbackInputStream(entityStream, 1);
+        int primero = entrada.read();
+        if (primero == -1) {
+            return null;
+        }
+        entrada.unread(primero);
+
+        try {
+            JsonParser parser = PacienteJson.parser(entrada);
+            return Paciente.class.equals(type) ? PacienteJson.leer(parser) : PacienteJson.leerLista(parser);
+        } catch (FormatoJsonException | JsonException e) {
+            throw new BadRequestException(Response.status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.APPLICATION_JSON_TYPE)
+                    .entity(ErrorJson.cuerpo("JSON inválido: " + e.getMessage()))
+                    .build());
+        }
+    }
+
+    /*
+     * Método que escribe solo los campos pedidos de un paciente o de una colección de pacientes
+     * @param proyeccion Parámetro que define la entidad y la máscara de campos
+     * @param salida Parámetro que define la salida JSON
+     * @throws IOException Si falla la escritura
+     * */
+    @SuppressWarnings("unchecked")
+    private static void escribirProyeccion(Proyeccion proyeccion, SalidaJson salida) throws IOException {
+        Object entidad = proyeccion.getEntidad();
+        if (entidad instanceof Collection) {
+            PacienteJson.escribirLista((Collection<Paciente>) entidad, salida, proyeccion.getCampos());
+        } else {
+            PacienteJson.escribir((Paciente) entidad, salida, proyeccion.getCampos());
+        }
+    }
+
+    /*
+     * Método que indica si el tipo genérico es un mapa de cédula a Paciente (Map<String, Paciente>)
+     * @param genericType Parámetro que define el tipo genérico declarado de la entidad
+     * @return true si los argumentos de tipo son String y Paciente
+     * */
+    private static boolean esMapaDePacientes(Type genericType) {
+        if (!(genericType instanceof ParameterizedType)) {
+            return false;
+        }
+        Type[] argumentos = ((ParameterizedType) genericType).getActualTypeArguments();
+        return argumentos.length == 2 && argumentos[0] == String.class && argumentos[1] == Paciente.class;
+    }
+
+    /*
+     * Método que indica si el tipo genérico es una colección de Paciente (ej. List<Paciente>)
+     * @param genericType Parámetro que define el tipo genérico declarado de la entidad
+     * @return true si el único argumento de tipo es Paciente
+     * */
+    private static boolean esColeccionDePacientes(Type genericType) {
+        if (!(genericType instanceof ParameterizedType)) {
+            return false;
+        }
+        Type[] argumentos = ((ParameterizedType) genericType).getActualTypeArguments();
+        return argumentos.length == 1 && argumentos[0] == Paciente.class;
+    }
+}
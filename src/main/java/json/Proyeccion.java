@@ -0,0 +1,53 @@
+package json;
+
+import model.Paciente;
+import java.util.Collection;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada Proyeccion envuelve un paciente o una colección de pacientes
+ *              junto con la máscara de CamposPaciente que se debe escribir, para que
+ *              PacienteJsonProvider omita los campos no pedidos (incluidos los primitivos edad y
+ *              activo, que en Paciente nunca son null).
+ * */
+
+public final class Proyeccion {
+
+    private final Object entidad;
+    private final int campos;
+
+    private Proyeccion(Object entidad, int campos) {
+        this.entidad = entidad;
+        this.campos = campos;
+    }
+
+    /*
+     * Método que crea la proyección de un paciente
+     * @param paciente Parámetro que define el paciente a escribir
+     * @param campos Parámetro que define la máscara de campos a escribir
+     * @return Entidad lista para la respuesta
+     * */
+    public static Proyeccion de(Paciente paciente, int campos) {
+        return new Proyeccion(paciente, campos);
+    }
+
+    /*
+     * Método que crea la proyección de una colección de pacientes
+     * @param pacientes Parámetro que define los pacientes a escribir
+     * @param campos Parámetro que define la máscara de campos a escribir
+     * @return Entidad lista para la respuesta
+     * */
+    public static Proyeccion de(Collection<Paciente> pacientes, int campos) {
+        return new Proyeccion(pacientes, campos);
+    }
+
+    public Object getEntidad() {
+        return entidad;
+    }
+
+    public int getCampos() {
+        return campos;
+    }
+}
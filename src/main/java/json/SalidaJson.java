@@ -0,0 +1,241 @@
+package json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada SalidaJson escribe JSON directamente como bytes UTF-8 sobre
+ *              un buffer propio, sin crear Strings intermedios: los textos se escapan y codifican
+ *              carácter por carácter y los números y fechas se escriben dígito por dígito.
+ * */
+
+public final class SalidaJson {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+
+    private final OutputStream destino;
+    private final byte[] buffer;
+    private int usados;
+
+    /*
+     * Constructor que prepara la escritura
+     * @param destino Parámetro que define el flujo donde se escribe el JSON
+     * @param tamanoBuffer Parámetro que define el tamaño del buffer en bytes (mínimo 16)
+     * */
+    public SalidaJson(OutputStream destino, int tamanoBuffer) {
+        this.destino = destino;
+        this.buffer = new byte[Math.max(16, tamanoBuffer)];
+    }
+
+    /*
+     * Método que escribe bytes ya codificados (nombres de campo, llaves, comas)
+     * @param bytes Parámetro que define los bytes a escribir
+     * @throws IOException Si falla la escritura en el flujo
+     * */
+    public void bytes(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - usados) {
+            vaciar();
+            if (bytes.length > buffer.length) {
+                destino.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, usados, bytes.length);
+        usados += bytes.length;
+    }
+
+    /*
+     * Método que escribe un byte ASCII
+     * @param b Parámetro que define el byte a escribir
+     * @throws IOException Si falla la escritura en el flujo
+     * */
+    public void ascii(int b) throws IOException {
+        if (usados == buffer.length) {
+            vaciar();
+        }
+        buffer[usados++] = (byte) b;
+    }
+
+    /*
+     * Método que escribe un texto JSON entre comillas, o null
+     * @param texto Parámetro que define el texto a escribir
+     * @throws IOException Si falla la escritura en el flujo
+     * */
+    public void texto(CharSequence texto) throws IOException {
+        if (texto == null) {
+            bytes(NULL);
+            return;
+        }
+        ascii('"');
+        int largo = texto.length();
+        for (int i = 0; i < largo; i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    ascii('\\');
+                    ascii(c);
+                } else if (c < 0x20) {
+                    escaparControl(c);
+                } else {
+                    ascii(c);
+                }
+            } else if (c < 0x800) {
+                ascii(0xc0 | (c >> 6));
+                ascii(0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < largo
+                    && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                int codigo = Character.toCodePoint(c, texto.charAt(++i));
+                ascii(0xf0 | (codigo >> 18));
+                ascii(0x80 | ((codigo >> 12) & 0x3f));
+                ascii(0x80 | ((codigo >> 6) & 0x3f));
+                ascii(0x80 | (codigo & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                // Sustituto sin pareja: no es UTF-16 válido, se reemplaza por '?' como hace String.getBytes
+                ascii('?');
+            } else {
+                ascii(0xe0 | (c >> 12));
+                ascii(0x80 | ((c >> 6) & 0x3f));
+                ascii(0x80 | (c & 0x3f));
+            }
+        }
+        ascii('"');
+    }
+
+    /*
+     * Método que escribe un número entero
+     * @param valor Parámetro que define el número a escribir
+     * @throws IOException Si falla la escritura en el flujo
+     * */
+    public void numero(long valor) throws IOException {
+        if (valor == Long.MIN_VALUE) {
+            bytes(Long.toString(valor).getBytes());
+            return;
+        }
+        if (valor < 0) {
+            ascii('-');
+            valor = -valor;
+        }
+        if (buffer.length - usados < 20) {
+            vaciar();
+        }
+        int digitos = 1;
+        for (long resto = valor / 10; resto > 0; resto /= 10) {
+            digitos++;
+        }
+        for (int i = usados + digitos - 1; i >= usados; i--) {
+            buffer[i] = (byte) ('0' + valor % 10);
+            valor /= 10;
+        }
+        usados += digitos;
+    }
+
+    /*
+     * Método que escribe un booleano
+     * @param valor Parámetro que define el valor a escribir
+     * @throws IOException Si falla la escritura en el flujo
+     * */
+    public void booleano(boolean valor) throws IOException {
+        bytes(valor ? TRUE : FALSE);
+    }
+
+    /*
+     * Método que escribe una fecha con el formato ISO que usa JSON-B (ej. "2025-12-07T21:41:09")
+     * @param fecha Parámetro que define la fecha a escribir, puede ser null
+     * @throws IOException Si falla la escritura en el flujo
+     * */
+    public void fecha(LocalDateTime fecha) throws IOException {
+        if (fecha == null) {
+            bytes(NULL);
+            return;
+        }
+        if (fecha.getNano() != 0 || fecha.getYear() < 0 || fecha.getYear() > 9999) {
+            texto(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(fecha));
+            return;
+        }
+        if (buffer.length - usados < 21) {
+            vaciar();
+        }
+        buffer[usados++] = '"';
+        dosDigitos(fecha.getYear() / 100);
+        dosDigitos(fecha.getYear() % 100);
+        buffer[usados++] = '-';
+        dosDigitos(fecha.getMonthValue());
+        buffer[usados++] = '-';
+        dosDigitos(fecha.getDayOfMonth());
+        buffer[usados++] = 'T';
+        dosDigitos(fecha.getHour());
+        buffer[usados++] = ':';
+        dosDigitos(fecha.getMinute());
+        buffer[usados++] = ':';
+        dosDigitos(fecha.getSecond());
+        buffer[usados++] = '"';
+    }
+
+    /*
+     * Método que escribe null
+     * @throws IOException Si falla la escritura en el flujo
+     * */
+    public void nulo() throws IOException {
+        bytes(NULL);
+    }
+
+    /*
+     * Método que envía al flujo lo acumulado en el buffer y vacía el flujo
+     * @throws IOException Si falla la escritura en el flujo
+     * */
+    public void flush() throws IOException {
+        vaciar();
+        destino.flush();
+    }
+
+    /*
+     * Método que envía al flujo lo acumulado en el buffer, sin vaciar el flujo
+     * @throws IOException Si falla la escritura en el flujo
+     * */
+    public void vaciar() throws IOException {
+        if (usados > 0) {
+            destino.write(buffer, 0, usados);
+            usados = 0;
+        }
+    }
+
+    private void dosDigitos(int valor) {
+        buffer[usados++] = (byte) ('0' + valor / 10);
+        buffer[usados++] = (byte) ('0' + valor % 10);
+    }
+
+    private void escaparControl(char c) throws IOException {
+        ascii('\\');
+        switch (c) {
+            case '\n':
+                ascii('n');
+                break;
+            case '\r':
+                ascii('r');
+                break;
+            case '\t':
+                ascii('t');
+                break;
+            case '\b':
+                ascii('b');
+                break;
+            case '\f':
+                ascii('f');
+                break;
+            default:
+                ascii('u');
+                ascii('0');
+                ascii('0');
+                ascii(HEX[c >> 4]);
+                ascii(HEX[c & 0xf]);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package metricas;
+
+import java.util.Locale;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada EscritorPrometheus arma texto en el formato de exposición
+ *              de Prometheus (versión 0.0.4): líneas HELP/TYPE, muestras con etiquetas e
+ *              histogramas con sus cubetas acumuladas, _sum y _count.
+ * */
+
+public class EscritorPrometheus {
+
+    private final StringBuilder texto = new StringBuilder(8 * 1024);
+
+    /*
+     * Método que escribe la cabecera de una métrica
+     * @param nombre Parámetro que define el nombre de la métrica
+     * @param tipo Parámetro que define el tipo (counter, gauge, histogram)
+     * @param ayuda Parámetro que define la descripción de la métrica
+     * @return El mismo escritor para encadenar llamadas
+     * */
+    public EscritorPrometheus cabecera(String nombre, String tipo, String ayuda) {
+        texto.append("# HELP ").append(nombre).append(' ').append(ayuda).append('\n');
+        texto.append("# TYPE ").append(nombre).append(' ').append(tipo).append('\n');
+        return this;
+    }
+
+    /*
+     * Método que escribe una muestra
+     * @param nombre Parámetro que define el nombre de la métrica
+     * @param valor Parámetro que define el valor de la muestra
+     * @param etiquetas Parámetro que define pares nombre, valor de etiquetas
+     * @return El mismo escritor para encadenar llamadas
+     * */
+    public EscritorPrometheus muestra(String nombre, double valor, String... etiquetas) {
+        texto.append(nombre);
+        etiquetas(etiquetas, null);
+        texto.append(' ').append(numero(valor)).append('\n');
+        return this;
+    }
+
+    /*
+     * Método que escribe un histograma en segundos con cubetas acumuladas
+     * @param nombre Parámetro que define el nombre base de la métrica
+     * @param histograma Parámetro que define el histograma a exportar
+     * @param etiquetas Parámetro que define pares nombre, valor de etiquetas
+     * @return El mismo escritor para encadenar llamadas
+     * */
+    public EscritorPrometheus histograma(String nombre, HistogramaLatencia histograma, String... etiquetas) {
+        long[] conteos = histograma.conteos();
+        long acumulado = 0;
+        for (int i = 0; i < conteos.length; i++) {
+            acumulado += conteos[i];
+            String limite = (i < HistogramaLatencia.LIMITES_NANOS.length)
+                    ? numero(HistogramaLatencia.LIMITES_NANOS[i] / 1e9)
+                    : "+Inf";
+            texto.append(nombre).append("_bucket");
+            etiquetas(etiquetas, limite);
+            texto.append(' ').append(acumulado).append('\n');
+        }
+        texto.append(nombre).append("_sum");
+        etiquetas(etiquetas, null);
+        texto.append(' ').append(numero(histograma.sumaNanos() / 1e9)).append('\n');
+        texto.append(nombre).append("_count");
+        etiquetas(etiquetas, null);
+        texto.append(' ').append(acumulado).append('\n');
+        return this;
+    }
+
+    /*
+     * Método que escribe los percentiles 50, 90, 99 y 99.9 de un histograma como gauge
+     * @param nombre Parámetro que define el nombre de la métrica de percentiles
+     * @param histograma Parámetro que define el histograma del cual estimarlos
+     * @param etiquetas Parámetro que define pares nombre, valor de etiquetas
+     * @return El mismo escritor para encadenar llamadas
+     * */
+    public EscritorPrometheus percentiles(String nombre, HistogramaLatencia histograma, String... etiquetas) {
+        long[] conteos = histograma.conteos();
+        for (String cuantil : new String[]{"0.5", "0.9", "0.99", "0.999"}) {
+            String[] conCuantil = new String[etiquetas.length + 2];
+            System.arraycopy(etiquetas, 0, conCuantil, 0, etiquetas.length);
+            conCuantil[etiquetas.length] = "quantile";
+            conCuantil[etiquetas.length + 1] = cuantil;
+            muestra(nombre, histograma.percentil(conteos, Double.parseDouble(cuantil)) / 1e9, conCuantil);
+        }
+        return this;
+    }
+
+    /*
+     * Método que escribe las etiquetas entre llaves, escapando los valores
+     * @param etiquetas Parámetro que define pares nombre, valor
+     * @param le Parámetro que define la etiqueta le de una cubeta, o null
+     * */
+    private void etiquetas(String[] etiquetas, String le) {
+        if (etiquetas.length == 0 && le == null) {
+            return;
+        }
+        texto.append('{');
+        for (int i = 0; i + 1 < etiquetas.length; i += 2) {
+            if (i > 0) {
+                texto.append(',');
+            }
+            texto.append(etiquetas[i]).append("=\"");
+            escapar(etiquetas[i + 1]);
+            texto.append('"');
+        }
+        if (le != null) {
+            if (etiquetas.length > 0) {
+                texto.append(',');
+            }
+            texto.append("le=\"").append(le).append('"');
+        }
+        texto.append('}');
+    }
+
+    private void escapar(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '\\' || c == '"') {
+                texto.append('\\').append(c);
+            } else if (c == '\n') {
+                texto.append("\\n");
+            } else {
+                texto.append(c);
+            }
+        }
+    }
+
+    private static String numero(double valor) {
+        if (valor == Math.rint(valor) && !Double.isInfinite(valor) && Math.abs(valor) < 1e15) {
+            return Long.toString((long) valor);
+        }
+        return String.format(Locale.ROOT, "%.6g", valor);
+    }
+
+    /*
+     * Método que devuelve el texto acumulado
+     * @return Texto en formato Prometheus
+     * */
+    @Override
+    public String toString() {
+        return texto.toString();
+    }
+}
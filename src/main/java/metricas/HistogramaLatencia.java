@@ -0,0 +1,124 @@
+package metricas;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada HistogramaLatencia acumula duraciones en cubetas de límites
+ *              fijos (escala aproximadamente logarítmica de 50 µs a 10 s). Cada cubeta es un
+ *              LongAdder, un contador repartido en celdas por hilo, por lo que registrar una
+ *              muestra no usa bloqueos ni genera contención entre solicitudes concurrentes.
+ *              Los percentiles se estiman interpolando dentro de la cubeta correspondiente.
+ * */
+
+public class HistogramaLatencia {
+
+    // Límites superiores de las cubetas, en nanosegundos; la última cubeta (+Inf) es implícita
+    static final long[] LIMITES_NANOS = {
+            50_000L, 100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L,
+            1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+    };
+
+    private final LongAdder[] cubetas = new LongAdder[LIMITES_NANOS.length + 1];
+    private final LongAdder sumaNanos = new LongAdder();
+    private final LongAccumulator maximoNanos = new LongAccumulator(Math::max, 0);
+
+    /*
+     * Constructor que crea el histograma vacío
+     * */
+    public HistogramaLatencia() {
+        for (int i = 0; i < cubetas.length; i++) {
+            cubetas[i] = new LongAdder();
+        }
+    }
+
+    /*
+     * Método que registra una duración
+     * @param nanos Parámetro que define la duración medida en nanosegundos
+     * */
+    public void registrar(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        int indice = 0;
+        while (indice < LIMITES_NANOS.length && nanos > LIMITES_NANOS[indice]) {
+            indice++;
+        }
+        cubetas[indice].increment();
+        sumaNanos.add(nanos);
+        maximoNanos.accumulate(nanos);
+    }
+
+    /*
+     * Método que obtiene una copia de los conteos por cubeta (no acumulados)
+     * @return Conteo de cada cubeta; la última posición corresponde a +Inf
+     * */
+    public long[] conteos() {
+        long[] copia = new long[cubetas.length];
+        for (int i = 0; i < cubetas.length; i++) {
+            copia[i] = cubetas[i].sum();
+        }
+        return copia;
+    }
+
+    /*
+     * Método que obtiene la suma de todas las duraciones registradas
+     * @return Suma en nanosegundos
+     * */
+    public long sumaNanos() {
+        return sumaNanos.sum();
+    }
+
+    /*
+     * Método que obtiene la mayor duración registrada
+     * @return Máximo en nanosegundos
+     * */
+    public long maximoNanos() {
+        return maximoNanos.get();
+    }
+
+    /*
+     * Método que estima un percentil a partir de los conteos de las cubetas
+     * @param cuantil Parámetro que define el cuantil buscado entre 0 y 1 (ej. 0.99)
+     * @return Duración estimada en nanosegundos, 0 si no hay muestras
+     * */
+    public long percentil(double cuantil) {
+        return percentil(conteos(), cuantil);
+    }
+
+    /*
+     * Método que estima un percentil a partir de una copia de los conteos
+     * @param conteos Parámetro que define los conteos por cubeta obtenidos con conteos()
+     * @param cuantil Parámetro que define el cuantil buscado entre 0 y 1
+     * @return Duración estimada en nanosegundos, 0 si no hay muestras
+     * */
+    public long percentil(long[] conteos, double cuantil) {
+        long total = 0;
+        for (long conteo : conteos) {
+            total += conteo;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        double objetivo = cuantil * total;
+        long acumulado = 0;
+        for (int i = 0; i < conteos.length; i++) {
+            if (conteos[i] == 0) {
+                continue;
+            }
+            if (acumulado + conteos[i] >= objetivo) {
+                long inferior = (i == 0) ? 0 : LIMITES_NANOS[i - 1];
+                long superior = (i < LIMITES_NANOS.length) ? LIMITES_NANOS[i] : maximoNanos.get();
+                double fraccion = (objetivo - acumulado) / conteos[i];
+                return Math.min(inferior + (long) ((superior - inferior) * fraccion), maximoNanos.get());
+            }
+            acumulado += conteos[i];
+        }
+        return maximoNanos.get();
+    }
+}
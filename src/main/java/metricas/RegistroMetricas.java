@@ -0,0 +1,144 @@
+package metricas;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada RegistroMetricas guarda las métricas de la aplicación:
+ *              latencia, códigos de estado y solicitudes en curso por ruta HTTP (a nivel de
+ *              plantilla, ej. GET /pacientes/{cedula}) y duración de cada método del DAO.
+ * */
+
+public final class RegistroMetricas {
+
+    private static final ConcurrentMap<Ruta, MetricasRuta> RUTAS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, HistogramaLatencia> DAO = new ConcurrentHashMap<>();
+
+    /*
+     * Constructor privado: clase de utilidades estáticas
+     * */
+    private RegistroMetricas() {
+    }
+
+    /*
+     * Método que obtiene (o crea) las métricas de una ruta HTTP
+     * @param metodo Parámetro que define el verbo HTTP
+     * @param plantilla Parámetro que define la plantilla de la ruta
+     * @return Métricas de la ruta
+     * */
+    public static MetricasRuta ruta(String metodo, String plantilla) {
+        return RUTAS.computeIfAbsent(new Ruta(metodo, plantilla), r -> new MetricasRuta());
+    }
+
+    /*
+     * Método que registra la duración de una llamada a un método del DAO
+     * @param metodo Parámetro que define el nombre del método del DAO
+     * @param nanos Parámetro que define la duración en nanosegundos
+     * */
+    public static void registrarDao(String metodo, long nanos) {
+        DAO.computeIfAbsent(metodo, m -> new HistogramaLatencia()).registrar(nanos);
+    }
+
+    /*
+     * Método que obtiene las métricas de todas las rutas HTTP
+     * @return Mapa de ruta a métricas
+     * */
+    public static Map<Ruta, MetricasRuta> rutas() {
+        return RUTAS;
+    }
+
+    /*
+     * Método que obtiene los histogramas de los métodos del DAO
+     * @return Mapa de método a histograma
+     * */
+    public static Map<String, HistogramaLatencia> dao() {
+        return DAO;
+    }
+
+    /*
+     * Identificador de una ruta HTTP: verbo y plantilla
+     * */
+    public static final class Ruta {
+        private final String metodo;
+        private final String plantilla;
+
+        Ruta(String metodo, String plantilla) {
+            this.metodo = metodo;
+            this.plantilla = plantilla;
+        }
+
+        public String getMetodo() {
+            return metodo;
+        }
+
+        public String getPlantilla() {
+            return plantilla;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Ruta)) {
+                return false;
+            }
+            Ruta otra = (Ruta) o;
+            return metodo.equals(otra.metodo) && plantilla.equals(otra.plantilla);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * metodo.hashCode() + plantilla.hashCode();
+        }
+    }
+
+    /*
+     * Métricas de una ruta: histograma de latencia, conteo por código de estado y solicitudes en curso
+     * */
+    public static final class MetricasRuta {
+        private final HistogramaLatencia latencia = new HistogramaLatencia();
+        private final ConcurrentMap<Integer, LongAdder> estados = new ConcurrentHashMap<>();
+        private final LongAdder enCurso = new LongAdder();
+
+        /*
+         * Método que marca el inicio de una solicitud en la ruta
+         * */
+        public void iniciar() {
+            enCurso.increment();
+        }
+
+        /*
+         * Método que marca el fin de una solicitud en la ruta
+         * @param estado Parámetro que define el código de estado HTTP de la respuesta
+         * @param nanos Parámetro que define la duración total de la solicitud
+         * */
+        public void finalizar(int estado, long nanos) {
+            enCurso.decrement();
+            latencia.registrar(nanos);
+            estados.computeIfAbsent(estado, e -> new LongAdder()).increment();
+        }
+
+        /*
+         * Método que cuenta una respuesta sin medir su latencia (solicitudes que no llegaron a un recurso)
+         * @param estado Parámetro que define el código de estado HTTP de la respuesta
+         * */
+        public void contar(int estado) {
+            estados.computeIfAbsent(estado, e -> new LongAdder()).increment();
+        }
+
+        public HistogramaLatencia getLatencia() {
+            return latencia;
+        }
+
+        public Map<Integer, LongAdder> getEstados() {
+            return estados;
+        }
+
+        public long getEnCurso() {
+            return enCurso.sum();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package model;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada CamposPaciente define los campos de Paciente que se pueden
+ *              pedir con ?fields= como bits de una máscara. Traduce la lista recibida a máscara
+ *              validándola contra la lista blanca y la máscara a las columnas del SELECT. La cédula
+ *              se incluye siempre: identifica al paciente y es el cursor de la paginación.
+ * */
+
+public final class CamposPaciente {
+
+    public static final int CEDULA = 1;
+    public static final int NOMBRE = 1 << 1;
+    public static final int CORREO = 1 << 2;
+    public static final int EDAD = 1 << 3;
+    public static final int DIRECCION = 1 << 4;
+    public static final int ACTIVO = 1 << 5;
+    public static final int FECHA_CREACION = 1 << 6;
+    public static final int FECHA_ACTUALIZACION = 1 << 7;
+    public static final int TODOS = (1 << 8) - 1;
+
+    // Nombre JSON y columna de cada campo, en el orden de sus bits
+    private static final String[] NOMBRES = {
+            "cedula", "nombre", "correo", "edad", "direccion", "activo", "fechaCreacion", "fechaActualizacion"};
+    private static final String[] COLUMNAS = {
+            "cedula", "nombre", "correo", "edad", "direccion", "activo", "fecha_creacion", "fecha_actualizacion"};
+
+    // Lista de columnas ya armada por máscara; una carrera solo arma la misma cadena dos veces
+    private static final String[] SELECT = new String[TODOS + 1];
+
+    /*
+     * Constructor privado: clase de utilidades estáticas
+     * */
+    private CamposPaciente() {
+    }
+
+    /*
+     * Método que traduce el parámetro fields (ej. "cedula,nombre") a una máscara de campos
+     * @param fields Parámetro que define los nombres JSON separados por comas, null para todos
+     * @return Máscara con los campos pedidos más la cédula
+     * @throws IllegalArgumentException Si la lista está vacía o contiene un campo desconocido
+     * */
+    public static int desde(String fields) {
+        if (fields == null) {
+            return TODOS;
+        }
+        int campos = 0;
+        for (String nombre : fields.split(",")) {
+            String limpio = nombre.trim();
+            if (limpio.isEmpty()) {
+                continue;
+            }
+            int bit = bit(limpio);
+            if (bit == 0) {
+                throw new IllegalArgumentException("Campo desconocido en fields: " + limpio);
+            }
+            campos |= bit;
+        }
+        if (campos == 0) {
+            throw new IllegalArgumentException("El parámetro fields debe indicar al menos un campo");
+        }
+        return campos | CEDULA;
+    }
+
+    /*
+     * Método que indica si una máscara incluye un campo
+     * @param campos Parámetro que define la máscara de campos
+     * @param campo Parámetro que define el bit del campo consultado
+     * @return true si el campo está en la máscara
+     * */
+    public static boolean incluye(int campos, int campo) {
+        return (campos & campo) != 0;
+    }
+
+    /*
+     * Método que obtiene la lista de columnas SQL de una máscara, en el orden de la tabla
+     * @param campos Parámetro que define la máscara de campos
+     * @return Columnas separadas por comas para el SELECT
+     * */
+    public static String columnas(int campos) {
+        int indice = campos & TODOS;
+        String columnas = SELECT[indice];
+        if (columnas == null) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < COLUMNAS.length; i++) {
+                if ((indice & (1 << i)) != 0) {
+                    if (sb.length() > 0) {
+                        sb.append(", ");
+                    }
+                    sb.append(COLUMNAS[i]);
+                }
+            }
+            columnas = sb.toString();
+            SELECT[indice] = columnas;
+        }
+        return columnas;
+    }
+
+    private static int bit(String nombre) {
+        for (int i = 0; i < NOMBRES.length; i++) {
+            if (NOMBRES[i].equals(nombre)) {
+                return 1 << i;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,119 @@
+package model;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada ResultadoBusqueda representa una coincidencia de la
+ *              búsqueda de pacientes por nombre o correo, con su puntaje de relevancia.
+ * */
+
+public class ResultadoBusqueda {
+    private String cedula;
+    private String nombre;
+    private String correo;
+    private boolean activo;
+    private int puntaje;
+
+    /*
+     * Constructor vacío para cumplir con el estándar JavaBeans
+     * */
+    public ResultadoBusqueda() {
+    }
+
+    /*
+     * Constructor con todos los atributos de la coincidencia
+     * @param cedula Parámetro que define la cédula del paciente
+     * @param nombre Parámetro que define el nombre del paciente
+     * @param correo Parámetro que define el correo del paciente
+     * @param activo Parámetro que define si el paciente está activo
+     * @param puntaje Parámetro que define la relevancia de la coincidencia (mayor es mejor)
+     * */
+    public ResultadoBusqueda(String cedula, String nombre, String correo, boolean activo, int puntaje) {
+        this.cedula = cedula;
+        this.nombre = nombre;
+        this.correo = correo;
+        this.activo = activo;
+        this.puntaje = puntaje;
+    }
+
+    /*
+     * Método que obtiene la cédula del paciente encontrado
+     * @return Número de cédula del paciente
+     * */
+    public String getCedula() {
+        return cedula;
+    }
+
+    /*
+     * Método que establece la cédula del paciente encontrado
+     * @param cedula Parámetro que define el número de cédula
+     * */
+    public void setCedula(String cedula) {
+        this.cedula = cedula;
+    }
+
+    /*
+     * Método que obtiene el nombre del paciente encontrado
+     * @return Nombre completo del paciente
+     * */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /*
+     * Método que establece el nombre del paciente encontrado
+     * @param nombre Parámetro que define el nombre completo
+     * */
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    /*
+     * Método que obtiene el correo del paciente encontrado
+     * @return Correo electrónico del paciente
+     * */
+    public String getCorreo() {
+        return correo;
+    }
+
+    /*
+     * Método que establece el correo del paciente encontrado
+     * @param correo Parámetro que define el correo electrónico
+     * */
+    public void setCorreo(String correo) {
+        this.correo = correo;
+    }
+
+    /*
+     * Método que verifica si el paciente encontrado está activo
+     * @return true si el paciente está activo
+     * */
+    public boolean isActivo() {
+        return activo;
+    }
+
+    /*
+     * Método que establece si el paciente encontrado está activo
+     * @param activo Parámetro que define el estado del paciente
+     * */
+    public void setActivo(boolean activo) {
+        this.activo = activo;
+    }
+
+    /*
+     * Método que obtiene la relevancia de la coincidencia
+     * @return Puntaje de la coincidencia, mayor es más relevante
+     * */
+    public int getPuntaje() {
+        return puntaje;
+    }
+
+    /*
+     * Método que establece la relevancia de la coincidencia
+     * @param puntaje Parámetro que define el nuevo puntaje
+     * */
+    public void setPuntaje(int puntaje) {
+        this.puntaje = puntaje;
+    }
+}
@@ -0,0 +1,105 @@
+package model;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada ResultadoRegistro representa el resultado de registrar
+ *              un paciente dentro de una carga masiva (creado, conflicto o inválido).
+ * */
+
+public class ResultadoRegistro {
+    public static final String CREADO = "creado";
+    public static final String CONFLICTO = "conflicto";
+    public static final String INVALIDO = "invalido";
+    public static final String ERROR = "error";
+
+    private int indice;
+    private String cedula;
+    private String estado;
+    private String error;
+
+    /*
+     * Constructor vacío para cumplir con el estándar JavaBeans
+     * */
+    public ResultadoRegistro() {
+    }
+
+    /*
+     * Constructor con todos los atributos del resultado
+     * @param indice Parámetro que define la posición del paciente en la solicitud
+     * @param cedula Parámetro que define la cédula del paciente
+     * @param estado Parámetro que define el resultado (creado, conflicto, invalido o error)
+     * @param error Parámetro que define el motivo del rechazo, null si fue creado
+     * */
+    public ResultadoRegistro(int indice, String cedula, String estado, String error) {
+        this.indice = indice;
+        this.cedula = cedula;
+        this.estado = estado;
+        this.error = error;
+    }
+
+    /*
+     * Método que obtiene la posición del paciente en la solicitud
+     * @return Índice del paciente, empezando en 0
+     * */
+    public int getIndice() {
+        return indice;
+    }
+
+    /*
+     * Método que establece la posición del paciente en la solicitud
+     * @param indice Parámetro que define el nuevo índice
+     * */
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+
+    /*
+     * Método que obtiene la cédula del paciente procesado
+     * @return Número de cédula del paciente
+     * */
+    public String getCedula() {
+        return cedula;
+    }
+
+    /*
+     * Método que establece la cédula del paciente procesado
+     * @param cedula Parámetro que define el número de cédula
+     * */
+    public void setCedula(String cedula) {
+        this.cedula = cedula;
+    }
+
+    /*
+     * Método que obtiene el resultado del registro
+     * @return creado, conflicto, invalido o error
+     * */
+    public String getEstado() {
+        return estado;
+    }
+
+    /*
+     * Método que establece el resultado del registro
+     * @param estado Parámetro que define el nuevo resultado
+     * */
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    /*
+     * Método que obtiene el motivo por el que el paciente no fue creado
+     * @return Mensaje de error, null si el paciente fue creado
+     * */
+    public String getError() {
+        return error;
+    }
+
+    /*
+     * Método que establece el motivo por el que el paciente no fue creado
+     * @param error Parámetro que define el mensaje de error
+     * */
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,47 @@
+package resource;
+
+import cache.PacienteCache;
+import dao.MonitorConexiones;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada DiagnosticoResource expone información interna de
+ *              funcionamiento del servidor (uso del pool de conexiones, caché) para diagnóstico.
+ * */
+
+@Path("/diagnostico")
+@Produces(MediaType.APPLICATION_JSON)
+public class DiagnosticoResource {
+
+    /*
+     * Método que maneja la solicitud GET para consultar el uso de conexiones por método del DAO
+     * @return Respuesta HTTP con las conexiones activas y las estadísticas de espera y retención
+     * */
+    @GET
+    @Path("/conexiones")
+    public Response conexiones() {
+        Map<String, Object> respuesta = new LinkedHashMap<>();
+        respuesta.put("activasTotales", MonitorConexiones.activasTotales());
+        respuesta.put("metodos", MonitorConexiones.estadisticas());
+        return Response.ok(respuesta).build();
+    }
+
+    /*
+     * Método que maneja la solicitud GET para consultar los contadores de la caché de pacientes
+     * @return Respuesta HTTP con aciertos, fallos, desalojos y tamaño actual de la caché
+     * */
+    @GET
+    @Path("/cache")
+    public Response cache() {
+        return Response.ok(PacienteCache.getInstance()).build();
+    }
+}
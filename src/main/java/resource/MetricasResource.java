@@ -0,0 +1,264 @@
+package resource;
+
+import busqueda.FiltroCedulas;
+import busqueda.IndiceNombres;
+import cache.PacienteCache;
+import cache.PaginasCompartidas;
+import dao.EnrutadorDataSource;
+import dao.EstadisticasConexion;
+import dao.MonitorConexiones;
+import ejecucion.ClaseOperacion;
+import ejecucion.ControlAdmision;
+import ejecucion.EjecutorAsincrono;
+import eventos.CanalCambios;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Response;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import metricas.EscritorPrometheus;
+import metricas.HistogramaLatencia;
+import metricas.RegistroMetricas;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada MetricasResource expone las métricas del servidor en el
+ *              formato de texto de Prometheus: histogramas de latencia por ruta y por método del
+ *              DAO, percentiles estimados, códigos de estado, solicitudes en curso, uso de
+ *              conexiones, reparto entre réplicas, caché, ejecutor asíncrono, índice de nombres
+ *              y filtro de cédulas.
+ * */
+
+@Path("/metrics")
+public class MetricasResource {
+
+    private static final String TEXTO_PROMETHEUS = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final CacheControl SIN_CACHE = new CacheControl();
+
+    static {
+        SIN_CACHE.setNoStore(true);
+    }
+
+    /*
+     * Método que maneja la solicitud GET para exportar todas las métricas
+     * @return Respuesta HTTP con las métricas en formato de exposición de Prometheus
+     * */
+    @GET
+    @Produces(TEXTO_PROMETHEUS)
+    public Response metricas() {
+        EscritorPrometheus escritor = new EscritorPrometheus();
+        escribirRutas(escritor);
+        escribirDao(escritor);
+        escribirConexiones(escritor);
+        escribirEnrutamiento(escritor);
+        escribirCache(escritor);
+
+        escritor.cabecera("hospital_async_en_curso", "gauge", "Tareas asíncronas en ejecución")
+                .muestra("hospital_async_en_curso", EjecutorAsincrono.enCurso());
+        escritor.cabecera("hospital_async_en_espera", "gauge", "Tareas asíncronas esperando un permiso")
+                .muestra("hospital_async_en_espera", EjecutorAsincrono.enEspera());
+
+        escritor.cabecera("hospital_admision_limite", "gauge", "Límite adaptativo de tareas simultáneas por clase");
+        for (ClaseOperacion clase : ClaseOperacion.values()) {
+            escritor.muestra("hospital_admision_limite", ControlAdmision.limite(clase), "clase", etiqueta(clase));
+        }
+        escritor.cabecera("hospital_admision_en_curso", "gauge", "Tareas admitidas en ejecución por clase");
+        for (ClaseOperacion clase : ClaseOperacion.values()) {
+            escritor.muestra("hospital_admision_en_curso", ControlAdmision.enCurso(clase), "clase", etiqueta(clase));
+        }
+        escritor.cabecera("hospital_admision_en_espera", "gauge", "Tareas en la cola de admisión por clase");
+        for (ClaseOperacion clase : ClaseOperacion.values()) {
+            escritor.muestra("hospital_admision_en_espera", ControlAdmision.enEspera(clase), "clase", etiqueta(clase));
+        }
+        escritor.cabecera("hospital_admision_rechazos_total", "counter", "Tareas rechazadas con 503 por clase");
+        for (ClaseOperacion clase : ClaseOperacion.values()) {
+            escritor.muestra("hospital_admision_rechazos_total", ControlAdmision.rechazos(clase),
+                    "clase", etiqueta(clase));
+        }
+
+        escritor.cabecera("hospital_sse_suscriptores", "gauge", "Clientes conectados al flujo de cambios")
+                .muestra("hospital_sse_suscriptores", CanalCambios.getInstance().getSuscriptores());
+
+        IndiceNombres indice = IndiceNombres.getInstance();
+        escritor.cabecera("hospital_indice_pacientes", "gauge", "Pacientes en el índice de nombres")
+                .muestra("hospital_indice_pacientes", indice.getTamano());
+        escritor.cabecera("hospital_indice_palabras", "gauge", "Palabras distintas en el índice de nombres")
+                .muestra("hospital_indice_palabras", indice.getPalabras());
+
+        FiltroCedulas filtro = FiltroCedulas.getInstance();
+        escritor.cabecera("hospital_filtro_cedulas_elementos", "gauge", "Cédulas agregadas al filtro de Bloom")
+                .muestra("hospital_filtro_cedulas_elementos", filtro.getElementos());
+        escritor.cabecera("hospital_filtro_cedulas_capacidad", "gauge", "Cédulas para las que se dimensionó el filtro")
+                .muestra("hospital_filtro_cedulas_capacidad", filtro.getCapacidad());
+        escritor.cabecera("hospital_filtro_cedulas_bits", "gauge", "Tamaño del filtro de Bloom en bits")
+                .muestra("hospital_filtro_cedulas_bits", filtro.getBits());
+        escritor.cabecera("hospital_filtro_cedulas_ocupacion", "gauge", "Fracción de bits encendidos del filtro")
+                .muestra("hospital_filtro_cedulas_ocupacion", filtro.getOcupacion());
+        escritor.cabecera("hospital_filtro_cedulas_fpp_estimada", "gauge",
+                        "Probabilidad estimada de falso positivo según la ocupación")
+                .muestra("hospital_filtro_cedulas_fpp_estimada", filtro.getFalsosPositivosEstimados());
+        escritor.cabecera("hospital_filtro_cedulas_consultas_total", "counter", "Consultas al filtro de cédulas")
+                .muestra("hospital_filtro_cedulas_consultas_total", filtro.getConsultas());
+        escritor.cabecera("hospital_filtro_cedulas_descartes_total", "counter",
+                        "Cédulas descartadas por el filtro sin consultar la base de datos")
+                .muestra("hospital_filtro_cedulas_descartes_total", filtro.getDescartes());
+        escritor.cabecera("hospital_filtro_cedulas_falsos_positivos_total", "counter",
+                        "Cédulas que pasaron el filtro pero no existían")
+                .muestra("hospital_filtro_cedulas_falsos_positivos_total", filtro.getFalsosPositivos());
+
+        return Response.ok(escritor.toString(), TEXTO_PROMETHEUS).cacheControl(SIN_CACHE).build();
+    }
+
+    /*
+     * Método que escribe latencia, percentiles, estados y solicitudes en curso por ruta
+     * @param escritor Parámetro que define el escritor de métricas
+     * */
+    private static void escribirRutas(EscritorPrometheus escritor) {
+        Map<RegistroMetricas.Ruta, RegistroMetricas.MetricasRuta> rutas = RegistroMetricas.rutas();
+
+        escritor.cabecera("hospital_http_request_duration_seconds", "histogram",
+                "Latencia de las solicitudes HTTP por ruta");
+        for (Map.Entry<RegistroMetricas.Ruta, RegistroMetricas.MetricasRuta> entrada : rutas.entrySet()) {
+            RegistroMetricas.Ruta ruta = entrada.getKey();
+            HistogramaLatencia latencia = entrada.getValue().getLatencia();
+            if (latencia.maximoNanos() > 0 || latencia.sumaNanos() > 0) {
+                escritor.histograma("hospital_http_request_duration_seconds", latencia,
+                        "metodo", ruta.getMetodo(), "ruta", ruta.getPlantilla());
+            }
+        }
+
+        escritor.cabecera("hospital_http_request_duration_quantile_seconds", "gauge",
+                "Percentiles de latencia estimados a partir del histograma");
+        for (Map.Entry<RegistroMetricas.Ruta, RegistroMetricas.MetricasRuta> entrada : rutas.entrySet()) {
+            RegistroMetricas.Ruta ruta = entrada.getKey();
+            HistogramaLatencia latencia = entrada.getValue().getLatencia();
+            if (latencia.maximoNanos() > 0 || latencia.sumaNanos() > 0) {
+                escritor.percentiles("hospital_http_request_duration_quantile_seconds", latencia,
+                        "metodo", ruta.getMetodo(), "ruta", ruta.getPlantilla());
+            }
+        }
+
+        escritor.cabecera("hospital_http_responses_total", "counter", "Respuestas HTTP por ruta y código de estado");
+        for (Map.Entry<RegistroMetricas.Ruta, RegistroMetricas.MetricasRuta> entrada : rutas.entrySet()) {
+            RegistroMetricas.Ruta ruta = entrada.getKey();
+            for (Map.Entry<Integer, LongAdder> estado : entrada.getValue().getEstados().entrySet()) {
+                escritor.muestra("hospital_http_responses_total", estado.getValue().sum(),
+                        "metodo", ruta.getMetodo(), "ruta", ruta.getPlantilla(),
+                        "estado", String.valueOf(estado.getKey()));
+            }
+        }
+
+        escritor.cabecera("hospital_http_requests_in_flight", "gauge", "Solicitudes HTTP en curso por ruta");
+        for (Map.Entry<RegistroMetricas.Ruta, RegistroMetricas.MetricasRuta> entrada : rutas.entrySet()) {
+            RegistroMetricas.Ruta ruta = entrada.getKey();
+            escritor.muestra("hospital_http_requests_in_flight", entrada.getValue().getEnCurso(),
+                    "metodo", ruta.getMetodo(), "ruta", ruta.getPlantilla());
+        }
+    }
+
+    /*
+     * Método que escribe la duración de los métodos del DAO (espera del pool + uso de la conexión)
+     * @param escritor Parámetro que define el escritor de métricas
+     * */
+    private static void escribirDao(EscritorPrometheus escritor) {
+        escritor.cabecera("hospital_dao_duration_seconds", "histogram",
+                "Duración de cada método del DAO desde que pide la conexión hasta que la devuelve");
+        for (Map.Entry<String, HistogramaLatencia> entrada : RegistroMetricas.dao().entrySet()) {
+            escritor.histograma("hospital_dao_duration_seconds", entrada.getValue(), "dao", entrada.getKey());
+        }
+    }
+
+    /*
+     * Método que escribe el uso de conexiones por método del DAO
+     * @param escritor Parámetro que define el escritor de métricas
+     * */
+    private static void escribirConexiones(EscritorPrometheus escritor) {
+        escritor.cabecera("hospital_conexiones_activas_totales", "gauge", "Conexiones prestadas en este momento")
+                .muestra("hospital_conexiones_activas_totales", MonitorConexiones.activasTotales());
+
+        Iterable<EstadisticasConexion> estadisticas = MonitorConexiones.estadisticas();
+        escritor.cabecera("hospital_conexiones_arriendos_total", "counter", "Conexiones obtenidas por método del DAO");
+        for (EstadisticasConexion e : estadisticas) {
+            escritor.muestra("hospital_conexiones_arriendos_total", e.getArriendos(), "dao", e.getMetodo());
+        }
+        escritor.cabecera("hospital_conexiones_fallos_total", "counter", "Fallos al obtener conexión por método del DAO");
+        for (EstadisticasConexion e : estadisticas) {
+            escritor.muestra("hospital_conexiones_fallos_total", e.getFallos(), "dao", e.getMetodo());
+        }
+        escritor.cabecera("hospital_conexiones_activas", "gauge", "Conexiones prestadas por método del DAO");
+        for (EstadisticasConexion e : estadisticas) {
+            escritor.muestra("hospital_conexiones_activas", e.getActivas(), "dao", e.getMetodo());
+        }
+        escritor.cabecera("hospital_conexiones_espera_maxima_seconds", "gauge", "Mayor espera del pool por método del DAO");
+        for (EstadisticasConexion e : estadisticas) {
+            escritor.muestra("hospital_conexiones_espera_maxima_seconds", e.getEsperaMaximaMs() / 1000.0,
+                    "dao", e.getMetodo());
+        }
+        escritor.cabecera("hospital_conexiones_retencion_maxima_seconds", "gauge",
+                "Mayor tiempo de retención de una conexión por método del DAO");
+        for (EstadisticasConexion e : estadisticas) {
+            escritor.muestra("hospital_conexiones_retencion_maxima_seconds", e.getRetencionMaximaMs() / 1000.0,
+                    "dao", e.getMetodo());
+        }
+    }
+
+    /*
+     * Método que escribe el reparto de lecturas entre réplicas y primario
+     * @param escritor Parámetro que define el escritor de métricas
+     * */
+    private static void escribirEnrutamiento(EscritorPrometheus escritor) {
+        EnrutadorDataSource enrutador = EnrutadorDataSource.actual();
+        if (enrutador == null) {
+            return;
+        }
+        escritor.cabecera("hospital_lecturas_total", "counter", "Lecturas del DAO por destino");
+        escritor.muestra("hospital_lecturas_total", enrutador.getLecturasReplica(), "destino", "replica");
+        escritor.muestra("hospital_lecturas_total", enrutador.getLecturasPrimario(), "destino", "primario");
+        escritor.cabecera("hospital_replicas_fallos_total", "counter", "Veces que una réplica no entregó conexión")
+                .muestra("hospital_replicas_fallos_total", enrutador.getFallosReplica());
+        escritor.cabecera("hospital_replicas", "gauge", "Réplicas de lectura configuradas")
+                .muestra("hospital_replicas", enrutador.getReplicas());
+        escritor.cabecera("hospital_replicas_sanas", "gauge", "Réplicas de lectura no suspendidas")
+                .muestra("hospital_replicas_sanas", enrutador.getReplicasSanas());
+    }
+
+    /*
+     * Método que escribe los contadores de la caché de pacientes
+     * @param escritor Parámetro que define el escritor de métricas
+     * */
+    private static void escribirCache(EscritorPrometheus escritor) {
+        PacienteCache cache = PacienteCache.getInstance();
+        escritor.cabecera("hospital_cache_aciertos_total", "counter", "Aciertos de la caché de pacientes")
+                .muestra("hospital_cache_aciertos_total", cache.getAciertos());
+        escritor.cabecera("hospital_cache_fallos_total", "counter", "Fallos de la caché de pacientes")
+                .muestra("hospital_cache_fallos_total", cache.getFallos());
+        escritor.cabecera("hospital_cache_desalojos_total", "counter", "Entradas desalojadas por tamaño")
+                .muestra("hospital_cache_desalojos_total", cache.getDesalojos());
+        escritor.cabecera("hospital_cache_expiraciones_total", "counter", "Entradas vencidas por TTL")
+                .muestra("hospital_cache_expiraciones_total", cache.getExpiraciones());
+        escritor.cabecera("hospital_cache_invalidaciones_total", "counter", "Entradas invalidadas por escrituras")
+                .muestra("hospital_cache_invalidaciones_total", cache.getInvalidaciones());
+        escritor.cabecera("hospital_cache_entradas", "gauge", "Entradas actuales en la caché de pacientes")
+                .muestra("hospital_cache_entradas", cache.getTamano());
+        escritor.cabecera("hospital_consultas_compartidas_total", "counter",
+                "Solicitudes que se unieron a una consulta idéntica en curso");
+        escritor.muestra("hospital_consultas_compartidas_total", cache.getConsultasCompartidas(), "consulta", "paciente");
+        escritor.muestra("hospital_consultas_compartidas_total",
+                PaginasCompartidas.getInstance().getConsultasCompartidas(), "consulta", "pagina");
+    }
+
+    /*
+     * Método privado que obtiene la etiqueta de una clase de operación (ej. "escritura")
+     * @param clase Parámetro que define la clase de operación
+     * @return Nombre en minúsculas
+     * */
+    private static String etiqueta(ClaseOperacion clase) {
+        return clase.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,11 +1,62 @@
 package resource;
 
+import busqueda.FiltroCedulas;
+import busqueda.IndiceNombres;
+import cache.PacienteCache;
+import cache.PaginasCompartidas;
+import dao.ConsultaPacientes;
+import dao.OrdenPacientes;
 import dao.PacienteDAO;
+import dao.ResultadoInsercion;
+import ejecucion.ClaseOperacion;
+import ejecucion.ControlAdmision;
+import ejecucion.EjecutorAsincrono;
+import ejecucion.SalidaConPermiso;
+import importacion.ImportadorCsv;
+import json.ErrorJson;
+import json.PacienteJson;
+import json.Proyeccion;
+import json.SalidaJson;
+import estadisticas.EstadisticasPacientes;
+import eventos.CanalCambios;
+import model.CamposPaciente;
 import model.Paciente;
+import model.ResultadoBusqueda;
+import model.ResultadoRegistro;
+import validacion.ValidadorCedula;
+import validacion.ValidadorPaciente;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.GenericEntity;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriBuilder;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /*
  * Author: Mateo Lasso
@@ -20,207 +71,914 @@ import java.util.List;
 @Consumes(MediaType.APPLICATION_JSON)
 public class PacienteResource {
 
+    // Tamaño de página por defecto y máximo permitido para el listado paginado
+    private static final int LIMITE_POR_DEFECTO = 50;
+    private static final int LIMITE_MAXIMO = 500;
+
+    // Header con el cursor de la siguiente página
+    static final String HEADER_SIGUIENTE_CURSOR = "X-Siguiente-Cursor";
+
+    // Tipo de contenido JSON delimitado por saltos de línea usado en la exportación
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    // Cada cuántas filas se vacía el buffer de la exportación hacia el cliente
+    private static final int FILAS_POR_FLUSH = 500;
+
+    // Resultados por defecto, máximos y longitud mínima de la búsqueda por nombre
+    private static final int BUSQUEDA_POR_DEFECTO = 10;
+    private static final int BUSQUEDA_MAXIMA = 50;
+    private static final int BUSQUEDA_LONGITUD_MINIMA = 2;
+
+    // Tipo de contenido de un JSON Merge Patch (RFC 7396)
+    static final String APPLICATION_MERGE_PATCH_JSON = "application/merge-patch+json";
+
+    // Tipo de contenido de la importación de pacientes
+    static final String TEXT_CSV = "text/csv";
+
+    // Número máximo de pacientes aceptados en una carga masiva
+    private static final int LOTE_MAXIMO = 10_000;
+
+    // Número máximo de cédulas aceptadas en una consulta múltiple
+    private static final int CONSULTA_MULTIPLE_MAXIMA = 1_000;
+
     private final PacienteDAO pacienteDAO = new PacienteDAO();
 
+    // Obliga al cliente a revalidar (con ETag / Last-Modified) antes de reutilizar su copia
+    private static final CacheControl REVALIDAR = new CacheControl();
+
+    static {
+        REVALIDAR.setNoCache(true);
+        // El constructor agrega no-transform; se quita para enviar solo "no-cache", como antes
+        REVALIDAR.setNoTransform(false);
+    }
+
+    @Context
+    private UriInfo uriInfo;
+
+    @Context
+    private HttpHeaders httpHeaders;
+
     /*
-     * Método que maneja la solicitud GET para obtener todos los pacientes
-     * @return Respuesta HTTP con la lista de pacientes en formato JSON
+     * Método que maneja la solicitud GET para obtener una página de pacientes, filtrada y ordenada en MySQL
+     * @param after Parámetro que define el cursor devuelto por la página anterior, opcional
+     * @param limit Parámetro que define el tamaño de la página, acotado a LIMITE_MAXIMO
+     * @param fields Parámetro que define los campos a devolver separados por comas (ej. cedula,nombre), opcional
+     * @param activo Parámetro que define si se listan solo los activos (true) o los inactivos (false), opcional
+     * @param edadMin Parámetro que define la edad mínima incluida, opcional
+     * @param edadMax Parámetro que define la edad máxima incluida, opcional
+     * @param sort Parámetro que define el campo de orden (cedula, nombre, edad, fechaCreacion), con '-' delante para descendente
+     * @param async Parámetro que define la respuesta asíncrona con la página de pacientes y el cursor siguiente en headers
      * */
     @GET
-    public Response getAll() {
-        List<Paciente> pacientes = pacienteDAO.getAll();
-        return Response.ok(pacientes).build();
+    public void getAll(@QueryParam("after") String after, @QueryParam("limit") Integer limit,
+                       @QueryParam("fields") String fields, @QueryParam("activo") String activo,
+                       @QueryParam("edadMin") Integer edadMin, @QueryParam("edadMax") Integer edadMax,
+                       @QueryParam("sort") String sort, @Suspended AsyncResponse async) {
+        if (limit != null && limit <= 0) {
+            async.resume(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"El límite debe ser mayor que cero\"}")
+                    .build());
+            return;
+        }
+        int limite = (limit == null) ? LIMITE_POR_DEFECTO : Math.min(limit, LIMITE_MAXIMO);
+        ConsultaPacientes consulta;
+        try {
+            boolean descendente = sort != null && sort.startsWith("-");
+            String campoOrden = descendente ? sort.substring(1) : sort;
+            OrdenPacientes orden = (sort == null) ? OrdenPacientes.CEDULA : OrdenPacientes.desde(campoOrden);
+            if (orden == null) {
+                throw new IllegalArgumentException("No se puede ordenar por: " + campoOrden);
+            }
+            // Se pide un registro adicional para saber si existe una página siguiente
+            consulta = new ConsultaPacientes()
+                    .campos(CamposPaciente.desde(fields))
+                    .activo(booleanoOpcional("activo", activo))
+                    .edad(edadMin, edadMax)
+                    .orden(orden, descendente)
+                    .despuesDe(after)
+                    .limite(limite + 1);
+        } catch (IllegalArgumentException e) {
+            async.resume(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ErrorJson.cuerpo(e.getMessage()))
+                    .build());
+            return;
+        }
+
+        // Los datos de la solicitud se copian aquí: el trabajo puede correr en otro hilo
+        UriBuilder enlaceSiguiente = uriInfo.getRequestUriBuilder();
+        Precondiciones precondiciones = Precondiciones.desde(httpHeaders);
+        EjecutorAsincrono.ejecutar(async, ClaseOperacion.LISTADO,
+                () -> listar(consulta, limite, enlaceSiguiente, precondiciones));
+    }
+
+    /*
+     * Método privado que consulta una página de pacientes y arma la respuesta
+     * @param consulta Parámetro que define los filtros, el orden, el cursor y los campos de la página
+     * @param limite Parámetro que define el tamaño de la página
+     * @param enlaceSiguiente Parámetro que define la URI de la solicitud para construir el enlace next
+     * @param precondiciones Parámetro que define los headers condicionales de la solicitud
+     * @return Respuesta HTTP con la página, o 304 si el cliente ya la tiene
+     * */
+    private Response listar(ConsultaPacientes consulta, int limite, UriBuilder enlaceSiguiente,
+                            Precondiciones precondiciones) {
+        // Los listados simultáneos de la misma página comparten la consulta
+        List<Paciente> pacientes = PaginasCompartidas.getInstance()
+                .obtener(consulta.clave(), () -> pacienteDAO.buscar(consulta));
+        int campos = consulta.getCampos();
+        String siguiente = null;
+        if (pacientes.size() > limite) {
+            pacientes = pacientes.subList(0, limite);
+            siguiente = consulta.cursor(pacientes.get(limite - 1));
+        }
+
+        // Sin fechaActualizacion la página no tiene versión: se responde sin validadores
+        // para no volver a leer la columna que la proyección quiso evitar
+        Response.ResponseBuilder respuesta;
+        if (campos == CamposPaciente.TODOS) {
+            // GenericEntity conserva el tipo List<Paciente> para que lo escriba PacienteJsonProvider
+            respuesta = Response.ok(new GenericEntity<List<Paciente>>(pacientes) { });
+        } else {
+            respuesta = Response.ok(Proyeccion.de(pacientes, campos));
+        }
+        if (CamposPaciente.incluye(campos, CamposPaciente.FECHA_ACTUALIZACION)) {
+            // Versión de la página: cambia si se agrega, modifica o elimina cualquiera de sus pacientes
+            EntityTag etag = etagPagina(pacientes, siguiente, campos);
+            Date ultimaModificacion = ultimaModificacion(pacientes);
+            if (precondiciones.noModificado(etag, ultimaModificacion)) {
+                return Response.notModified(etag).cacheControl(REVALIDAR).build();
+            }
+            respuesta.tag(etag).lastModified(ultimaModificacion);
+        }
+        respuesta.cacheControl(REVALIDAR);
+        if (siguiente != null) {
+            URI enlace = enlaceSiguiente
+                    .replaceQueryParam("after", siguiente)
+                    .replaceQueryParam("limit", limite)
+                    .build();
+            respuesta.header(HEADER_SIGUIENTE_CURSOR, siguiente).link(enlace, "next");
+        }
+        return respuesta.build();
+    }
+
+    /*
+     * Método que maneja la solicitud GET para buscar pacientes por nombre o correo (autocompletar).
+     * Responde desde el índice en memoria; si el índice aún se está cargando, consulta la base de
+     * datos por prefijo del nombre.
+     * @param q Parámetro que define el texto buscado, se comparan prefijos de palabras sin tildes
+     * @param limit Parámetro que define el número máximo de resultados
+     * @return Respuesta HTTP con las coincidencias ordenadas por relevancia
+     * */
+    @GET
+    @Path("/search")
+    public Response search(@QueryParam("q") String q, @QueryParam("limit") Integer limit) {
+        if (q == null || q.trim().length() < BUSQUEDA_LONGITUD_MINIMA) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"La búsqueda debe tener al menos " + BUSQUEDA_LONGITUD_MINIMA + " caracteres\"}")
+                    .build();
+        }
+        int limite = (limit == null || limit <= 0) ? BUSQUEDA_POR_DEFECTO : Math.min(limit, BUSQUEDA_MAXIMA);
+
+        IndiceNombres indice = IndiceNombres.getInstance();
+        if (indice.isListo()) {
+            return Response.ok(indice.buscar(q, limite)).build();
+        }
+
+        List<ResultadoBusqueda> resultados = new ArrayList<>();
+        for (Paciente paciente : pacienteDAO.buscarPorNombre(q.trim(), limite)) {
+            resultados.add(new ResultadoBusqueda(paciente.getCedula(), paciente.getNombre(),
+                    paciente.getCorreo(), paciente.isActivo(), 0));
+        }
+        return Response.ok(resultados).build();
+    }
+
+    /*
+     * Método que maneja la solicitud GET para exportar todos los pacientes en formato NDJSON.
+     * Las filas se leen en streaming y se escriben a medida que llegan, por lo que el uso de
+     * memoria es constante sin importar el tamaño de la tabla. La exportación pasa por el control
+     * de admisión como un listado y retiene su permiso hasta terminar de escribir, porque la
+     * conexión a la base de datos se usa mientras se envía la respuesta. SalidaConPermiso devuelve
+     * el permiso también si el cuerpo nunca se llega a escribir.
+     * @param async Parámetro que define la respuesta asíncrona con un paciente JSON por línea,
+     *              o 503 si hay demasiados listados en curso
+     * */
+    @GET
+    @Path("/export")
+    @Produces(APPLICATION_NDJSON)
+    public void exportar(@Suspended AsyncResponse async) {
+        ControlAdmision.Permiso permiso;
+        try {
+            permiso = ControlAdmision.admitir(ClaseOperacion.LISTADO);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            permiso = null;
+        }
+        if (permiso == null) {
+            async.resume(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, 1)
+                    .type(MediaType.APPLICATION_JSON_TYPE)
+                    .entity(ErrorJson.cuerpo("Servidor saturado"))
+                    .build());
+            return;
+        }
+
+        StreamingOutput cuerpo = output -> {
+            SalidaJson json = new SalidaJson(output, 64 * 1024);
+            int[] filas = {0};
+            try {
+                pacienteDAO.recorrerLectura(paciente -> {
+                    PacienteJson.escribir(paciente, json);
+                    json.ascii('\n');
+                    // La primera fila se envía de inmediato para que el cliente reciba datos sin esperar
+                    if (++filas[0] == 1 || filas[0] % FILAS_POR_FLUSH == 0) {
+                        json.flush();
+                    }
+                });
+            } catch (SQLException e) {
+                // Los headers ya fueron enviados: se corta la respuesta para que el cliente detecte el error
+                throw new IOException("Error al leer pacientes para la exportación", e);
+            }
+            json.flush();
+        };
+        ControlAdmision.Permiso admitido = permiso;
+        SalidaConPermiso salida = new SalidaConPermiso(cuerpo, () -> ControlAdmision.liberar(admitido, false));
+        async.register(salida);
+        async.resume(Response.ok(salida, APPLICATION_NDJSON).build());
+    }
+
+    /*
+     * Método que maneja la solicitud GET para consultar las estadísticas de pacientes. Se responde
+     * desde los totales en memoria, sin consultar la base de datos.
+     * @return Respuesta HTTP con totales, activos/inactivos, rangos de edad y registros por día,
+     *         o 503 si las estadísticas todavía se están calculando
+     * */
+    @GET
+    @Path("/stats")
+    public Response stats() {
+        EstadisticasPacientes estadisticas = EstadisticasPacientes.getInstance();
+        if (!estadisticas.isListo()) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, 5)
+                    .entity("{\"error\": \"Las estadísticas se están calculando\"}")
+                    .build();
+        }
+        return Response.ok(estadisticas.resumen()).build();
+    }
+
+    /*
+     * Método que maneja la solicitud GET que abre un flujo Server-Sent Events con los cambios de
+     * pacientes. Con Last-Event-ID se reponen los eventos perdidos durante la reconexión.
+     * @param sink Parámetro que define la conexión SSE del cliente
+     * @param sse Parámetro que define la fábrica de eventos de JAX-RS
+     * @param ultimoId Parámetro que define el id del último evento recibido por el cliente, o null
+     * */
+    @GET
+    @Path("/changes")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void changes(@Context SseEventSink sink, @Context Sse sse,
+                        @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String ultimoId) {
+        CanalCambios.getInstance().suscribir(sink, sse, ultimoId);
     }
 
     /*
      * Método que maneja la solicitud GET para obtener un paciente por cédula
      * @param cedula Parámetro que define el número de cédula del paciente a buscar
-     * @return Respuesta HTTP con el paciente encontrado o error 404 si no existe
+     * @param fields Parámetro que define los campos a devolver separados por comas, opcional
+     * @param async Parámetro que define la respuesta asíncrona con el paciente encontrado o error 404 si no existe
      * */
     @GET
     @Path("/{cedula}")
-    public Response getByCedula(@PathParam("cedula") String cedula) {
-        Paciente paciente = pacienteDAO.getByCedula(cedula);
+    public void getByCedula(@PathParam("cedula") String cedula, @QueryParam("fields") String fields,
+                            @Suspended AsyncResponse async) {
+        // Una cédula sin el formato de 10 dígitos, o que el filtro descarta, no puede estar registrada
+        if (!ValidadorCedula.tieneFormato(cedula) || FiltroCedulas.getInstance().descartada(cedula)) {
+            async.resume(Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"error\": \"Paciente no encontrado\"}")
+                    .build());
+            return;
+        }
+        int campos;
+        try {
+            campos = CamposPaciente.desde(fields);
+        } catch (IllegalArgumentException e) {
+            async.resume(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ErrorJson.cuerpo(e.getMessage()))
+                    .build());
+            return;
+        }
+        Precondiciones precondiciones = Precondiciones.desde(httpHeaders);
+        EjecutorAsincrono.ejecutar(async, ClaseOperacion.LECTURA,
+                () -> buscarPorCedula(cedula, campos, precondiciones));
+    }
+
+    /*
+     * Método privado que obtiene un paciente (de la caché o la base de datos) y arma la respuesta
+     * @param cedula Parámetro que define el número de cédula del paciente
+     * @param campos Parámetro que define la máscara de CamposPaciente a devolver
+     * @param precondiciones Parámetro que define los headers condicionales de la solicitud
+     * @return Respuesta HTTP con el paciente, 304 si el cliente ya lo tiene o 404 si no existe
+     * */
+    private Response buscarPorCedula(String cedula, int campos, Precondiciones precondiciones) {
+        // Solicitud condicional: se decide con la fecha de actualización, sin leer la fila completa
+        if (precondiciones.esCondicional()) {
+            Paciente enCache = PacienteCache.getInstance().consultar(cedula);
+            LocalDateTime version = (enCache != null)
+                    ? enCache.getFechaActualizacion()
+                    : pacienteDAO.getFechaActualizacion(cedula);
+            if (version != null) {
+                EntityTag etag = etagPaciente(version, campos);
+                if (precondiciones.noModificado(etag, aDate(version))) {
+                    return Response.notModified(etag).cacheControl(REVALIDAR).build();
+                }
+            }
+        }
+
+        Paciente paciente;
+        if (campos == CamposPaciente.TODOS) {
+            paciente = PacienteCache.getInstance().obtener(cedula, pacienteDAO::getByCedula);
+        } else {
+            // La caché solo guarda pacientes completos: se usa si ya lo tiene, pero una fila
+            // parcial no se guarda. La fecha de actualización se lee siempre para el ETag.
+            paciente = PacienteCache.getInstance().consultar(cedula);
+            if (paciente == null) {
+                paciente = pacienteDAO.getByCedula(cedula, campos | CamposPaciente.FECHA_ACTUALIZACION);
+            }
+        }
         if (paciente != null) {
-            return Response.ok(paciente).build();
+            Object entidad = (campos == CamposPaciente.TODOS) ? paciente : Proyeccion.de(paciente, campos);
+            Response.ResponseBuilder respuesta = Response.ok(entidad).cacheControl(REVALIDAR);
+            if (paciente.getFechaActualizacion() != null) {
+                respuesta.tag(etagPaciente(paciente.getFechaActualizacion(), campos))
+                        .lastModified(aDate(paciente.getFechaActualizacion()));
+            }
+            return respuesta.build();
         }
+        FiltroCedulas.getInstance().registrarAusente();
         return Response.status(Response.Status.NOT_FOUND)
                 .entity("{\"error\": \"Paciente no encontrado\"}")
                 .build();
     }
 
     /*
-     * Método que maneja la solicitud POST para crear un nuevo paciente
-     * @param paciente Parámetro que define el objeto Paciente a crear
-     * @return Respuesta HTTP con el paciente creado o mensaje de error
+     * Método que maneja la solicitud POST para obtener muchos pacientes en una sola llamada.
+     * Las cédulas que están en la caché se responden desde ahí y las demás se buscan con
+     * consultas IN (...) en bloques sobre una sola conexión.
+     * @param cedulas Parámetro que define el arreglo JSON de cédulas a buscar
+     * @param async Parámetro que define la respuesta asíncrona con un objeto cédula -> paciente,
+     *              en el orden pedido y con null para las cédulas no registradas
      * */
     @POST
-    public Response create(Paciente paciente) {
-        try {
-            // Validar cédula
-            if (!validarCedulaEcuatoriana(paciente.getCedula())) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("{\"error\": \"Cédula ecuatoriana inválida\"}")
-                        .build();
-            }
+    @Path("/lookup")
+    public void lookup(JsonArray cedulas, @Suspended AsyncResponse async) {
+        if (cedulas == null || cedulas.isEmpty()) {
+            async.resume(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"Debe enviar un arreglo con al menos una cédula\"}")
+                    .build());
+            return;
+        }
+        if (cedulas.size() > CONSULTA_MULTIPLE_MAXIMA) {
+            async.resume(Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE)
+                    .entity("{\"error\": \"Máximo " + CONSULTA_MULTIPLE_MAXIMA + " cédulas por solicitud\"}")
+                    .build());
+            return;
+        }
 
-            // Validar campos obligatorios
-            if (paciente.getNombre() == null || paciente.getNombre().trim().isEmpty() ||
-                    paciente.getCorreo() == null || paciente.getCorreo().trim().isEmpty() ||
-                    paciente.getCedula() == null || paciente.getCedula().trim().isEmpty()) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("{\"error\": \"Nombre, cédula y correo son obligatorios\"}")
-                        .build();
+        // Se conserva el orden pedido y se quitan las repetidas; todas empiezan como no encontradas
+        Map<String, Paciente> resultado = new LinkedHashMap<>();
+        for (JsonValue valor : cedulas) {
+            if (valor.getValueType() != JsonValue.ValueType.STRING) {
+                async.resume(Response.status(Response.Status.BAD_REQUEST)
+                        .entity("{\"error\": \"Las cédulas deben ser texto\"}")
+                        .build());
+                return;
             }
+            resultado.put(((JsonString) valor).getString(), null);
+        }
 
-            // Validar edad
-            if (paciente.getEdad() <= 0 || paciente.getEdad() > 120) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("{\"error\": \"Edad debe estar entre 1 y 120 años\"}")
-                        .build();
+        EjecutorAsincrono.ejecutar(async, ClaseOperacion.LECTURA, () -> {
+            PacienteCache cache = PacienteCache.getInstance();
+            FiltroCedulas filtro = FiltroCedulas.getInstance();
+            List<String> pendientes = new ArrayList<>();
+            for (Map.Entry<String, Paciente> entrada : resultado.entrySet()) {
+                String cedula = entrada.getKey();
+                if (!ValidadorCedula.tieneFormato(cedula) || filtro.descartada(cedula)) {
+                    continue;
+                }
+                Paciente enCache = cache.consultar(cedula);
+                if (enCache != null) {
+                    entrada.setValue(enCache);
+                } else {
+                    pendientes.add(cedula);
+                }
             }
 
-            // Verificar si cédula ya existe
-            if (pacienteDAO.existeCedula(paciente.getCedula())) {
-                return Response.status(Response.Status.CONFLICT)
-                        .entity("{\"error\": \"La cédula ya está registrada\"}")
+            Map<String, Paciente> encontrados = pacienteDAO.getPorCedulas(pendientes);
+            if (encontrados == null) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("{\"error\": \"Error al consultar pacientes\"}")
                         .build();
             }
+            for (Map.Entry<String, Paciente> entrada : encontrados.entrySet()) {
+                resultado.replace(entrada.getKey(), entrada.getValue());
+            }
+            // GenericEntity conserva el tipo Map<String, Paciente> para que lo escriba PacienteJsonProvider
+            return Response.ok(new GenericEntity<Map<String, Paciente>>(resultado) { }).build();
+        });
+    }
 
-            // Crear paciente
-            boolean creado = pacienteDAO.create(paciente);
-            if (creado) {
-                Paciente pacienteCreado = pacienteDAO.getByCedula(paciente.getCedula());
+    /*
+     * Método que maneja la solicitud POST para crear un nuevo paciente
+     * @param paciente Parámetro que define el objeto Paciente a crear
+     * @param async Parámetro que define la respuesta asíncrona con el paciente creado o mensaje de error
+     * */
+    @POST
+    public void create(Paciente paciente, @Suspended AsyncResponse async) {
+        String error = ValidadorPaciente.validar(paciente);
+        if (error != null) {
+            async.resume(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ErrorJson.cuerpo(error))
+                    .build());
+            return;
+        }
+        URI ubicacion = uriInfo.getAbsolutePathBuilder().path(paciente.getCedula()).build();
+        EjecutorAsincrono.ejecutar(async, ClaseOperacion.ESCRITURA, () -> crear(paciente, ubicacion));
+    }
 
-                if (pacienteCreado != null) {
-                    return Response.status(Response.Status.CREATED)
-                            .entity(pacienteCreado)
-                            .build();
-                } else {
-                    paciente.setActivo(true);
-                    return Response.status(Response.Status.CREATED)
+    /*
+     * Método privado que inserta un paciente ya validado y arma la respuesta
+     * @param paciente Parámetro que define el paciente a crear
+     * @param ubicacion Parámetro que define la URI del nuevo paciente para el header Location
+     * @return Respuesta HTTP 201 con el paciente creado, 409 si está duplicado o 500 si falla
+     * */
+    private Response crear(Paciente paciente, URI ubicacion) {
+        try {
+            // Crear paciente con un único INSERT; los duplicados los detecta la base de datos
+            ResultadoInsercion resultado = pacienteDAO.create(paciente);
+            switch (resultado) {
+                case CREADO:
+                    return Response.created(ubicacion)
                             .entity(paciente)
                             .build();
-                }
-            } else {
-                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                        .entity("{\"error\": \"Error al crear paciente en la base de datos\"}")
-                        .build();
+                case CEDULA_DUPLICADA:
+                    return Response.status(Response.Status.CONFLICT)
+                            .entity("{\"error\": \"La cédula ya está registrada\", \"campo\": \"cedula\"}")
+                            .build();
+                case CORREO_DUPLICADO:
+                    return Response.status(Response.Status.CONFLICT)
+                            .entity("{\"error\": \"El correo ya está registrado\", \"campo\": \"correo\"}")
+                            .build();
+                default:
+                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                            .entity("{\"error\": \"Error al crear paciente en la base de datos\"}")
+                            .build();
             }
 
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("{\"error\": \"Error interno: " + e.getMessage() + "\"}")
+                    .entity(ErrorJson.cuerpo("Error interno: " + e.getMessage()))
                     .build();
         }
     }
 
+    /*
+     * Método que maneja la solicitud POST para registrar muchos pacientes en una sola llamada.
+     * Cada paciente pasa por las mismas validaciones que en create; los válidos se insertan
+     * con lotes JDBC sobre una sola conexión.
+     * @param pacientes Parámetro que define la lista de pacientes a registrar
+     * @param async Parámetro que define la respuesta asíncrona con el resultado de cada paciente (creado, conflicto, invalido o error)
+     * */
+    @POST
+    @Path("/batch")
+    public void createBatch(List<Paciente> pacientes, @Suspended AsyncResponse async) {
+        if (pacientes == null || pacientes.isEmpty()) {
+            async.resume(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"Debe enviar al menos un paciente\"}")
+                    .build());
+            return;
+        }
+        if (pacientes.size() > LOTE_MAXIMO) {
+            async.resume(Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE)
+                    .entity("{\"error\": \"Máximo " + LOTE_MAXIMO + " pacientes por solicitud\"}")
+                    .build());
+            return;
+        }
+
+        ResultadoRegistro[] resultados = new ResultadoRegistro[pacientes.size()];
+        List<Paciente> validos = new ArrayList<>(pacientes.size());
+        List<Integer> indicesValidos = new ArrayList<>(pacientes.size());
+        for (int i = 0; i < pacientes.size(); i++) {
+            Paciente paciente = pacientes.get(i);
+            String error = ValidadorPaciente.validar(paciente);
+            if (error != null) {
+                String cedula = (paciente == null) ? null : paciente.getCedula();
+                resultados[i] = new ResultadoRegistro(i, cedula, ResultadoRegistro.INVALIDO, error);
+            } else {
+                validos.add(paciente);
+                indicesValidos.add(i);
+            }
+        }
+
+        EjecutorAsincrono.ejecutar(async, ClaseOperacion.ESCRITURA, () -> {
+            if (!validos.isEmpty()) {
+                ResultadoInsercion[] inserciones = pacienteDAO.createLote(validos);
+                for (int j = 0; j < inserciones.length; j++) {
+                    int i = indicesValidos.get(j);
+                    resultados[i] = aResultadoRegistro(i, validos.get(j).getCedula(), inserciones[j]);
+                }
+            }
+            return Response.ok(List.of(resultados)).build();
+        });
+    }
+
+    /*
+     * Método que maneja la solicitud POST para importar pacientes desde un archivo CSV. El archivo
+     * se lee en streaming (columnas cedula, nombre, correo, edad, direccion, con o sin encabezado)
+     * y la respuesta informa en NDJSON las filas rechazadas y el avance a medida que se guardan.
+     * SalidaConPermiso devuelve el cupo de importación también si el cuerpo nunca se llega a escribir.
+     * @param entrada Parámetro que define el cuerpo CSV de la solicitud, en UTF-8
+     * @param separador Parámetro que define el separador de campos: "," (por defecto) o ";"
+     * @param async Parámetro que define la respuesta asíncrona con el informe de la importación,
+     *              400 si el separador no es válido o 503 si ya hay demasiadas importaciones en curso
+     * */
+    @POST
+    @Path("/import")
+    @Consumes(TEXT_CSV)
+    @Produces(APPLICATION_NDJSON)
+    public void importar(InputStream entrada, @QueryParam("separador") @DefaultValue(",") String separador,
+                         @Suspended AsyncResponse async) {
+        if (!separador.equals(",") && !separador.equals(";")) {
+            async.resume(Response.status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.APPLICATION_JSON_TYPE)
+                    .entity("{\"error\": \"El separador debe ser , o ;\"}")
+                    .build());
+            return;
+        }
+        if (!ImportadorCsv.reservar()) {
+            async.resume(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, 30)
+                    .type(MediaType.APPLICATION_JSON_TYPE)
+                    .entity("{\"error\": \"Hay demasiadas importaciones en curso\"}")
+                    .build());
+            return;
+        }
+
+        ImportadorCsv importador = new ImportadorCsv(separador.charAt(0));
+        SalidaConPermiso salida = new SalidaConPermiso(output -> importador.importar(entrada, output),
+                ImportadorCsv::liberar);
+        async.register(salida);
+        async.resume(Response.ok(salida, APPLICATION_NDJSON).build());
+    }
+
     /*
      * Método que maneja la solicitud PUT para actualizar un paciente existente
      * @param cedula Parámetro que define el número de cédula del paciente a actualizar
      * @param paciente Parámetro que define el objeto Paciente con los datos actualizados
-     * @return Respuesta HTTP con el paciente actualizado o mensaje de error
+     * @param async Parámetro que define la respuesta asíncrona con el paciente actualizado o mensaje de error
      * */
     @PUT
     @Path("/{cedula}")
-    public Response update(@PathParam("cedula") String cedula, Paciente paciente) {
+    public void update(@PathParam("cedula") String cedula, Paciente paciente, @Suspended AsyncResponse async) {
         if (!cedula.equals(paciente.getCedula())) {
-            return Response.status(Response.Status.BAD_REQUEST)
+            async.resume(Response.status(Response.Status.BAD_REQUEST)
                     .entity("{\"error\": \"La cédula no coincide\"}")
-                    .build();
+                    .build());
+            return;
         }
 
-        if (!pacienteDAO.existeCedula(cedula)) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity("{\"error\": \"Paciente no encontrado\"}")
+        EjecutorAsincrono.ejecutar(async, ClaseOperacion.ESCRITURA, () -> {
+            if (FiltroCedulas.getInstance().descartada(cedula) || !pacienteDAO.existeCedula(cedula)) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("{\"error\": \"Paciente no encontrado\"}")
+                        .build();
+            }
+
+            boolean actualizado = pacienteDAO.update(paciente);
+            if (actualizado) {
+                return Response.ok(paciente).build();
+            }
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("{\"error\": \"Error al actualizar paciente\"}")
                     .build();
+        });
+    }
+
+    /*
+     * Método que maneja la solicitud PATCH para modificar solo algunos campos de un paciente.
+     * Recibe un JSON Merge Patch y, si viene If-Match, solo aplica el cambio si el paciente
+     * sigue en la versión que el cliente leyó; en otro caso, o si el paciente no existe, responde 412.
+     * @param cedula Parámetro que define el número de cédula del paciente a modificar
+     * @param parche Parámetro que define los campos a modificar y sus nuevos valores
+     * @param async Parámetro que define la respuesta asíncrona: 204 con el nuevo ETag, o mensaje de error
+     * */
+    @PATCH
+    @Path("/{cedula}")
+    @Consumes({APPLICATION_MERGE_PATCH_JSON, MediaType.APPLICATION_JSON})
+    public void patch(@PathParam("cedula") String cedula, JsonObject parche, @Suspended AsyncResponse async) {
+        // Con If-Match (incluso "*") un paciente inexistente es una precondición fallida: 412, no 404
+        String etagEsperado = Precondiciones.desde(httpHeaders).etagEsperado();
+        boolean condicionado = etagEsperado != null;
+        if (!ValidadorCedula.tieneFormato(cedula)) {
+            async.resume(condicionado ? versionDistinta() : Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"error\": \"Paciente no encontrado\"}")
+                    .build());
+            return;
         }
 
-        boolean actualizado = pacienteDAO.update(paciente);
-        if (actualizado) {
-            return Response.ok(paciente).build();
+        Map<String, Object> cambios = new LinkedHashMap<>();
+        String error = leerParche(cedula, parche, cambios);
+        if (error != null) {
+            async.resume(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ErrorJson.cuerpo(error))
+                    .build());
+            return;
         }
-        return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity("{\"error\": \"Error al actualizar paciente\"}")
-                .build();
+
+        // Versión que el cliente leyó; un ETag que no corresponde a ninguna versión nunca coincide
+        LocalDateTime versionEsperada = null;
+        if (condicionado && !etagEsperado.equals("*")) {
+            versionEsperada = versionDeEtag(etagEsperado);
+            if (versionEsperada == null) {
+                async.resume(versionDistinta());
+                return;
+            }
+        }
+
+        LocalDateTime esperada = versionEsperada;
+        EjecutorAsincrono.ejecutar(async, ClaseOperacion.ESCRITURA, () -> {
+            // MySQL avanza la versión; el DAO la entrega para responder con el ETag nuevo
+            LocalDateTime[] nuevaVersion = new LocalDateTime[1];
+            switch (pacienteDAO.updateParcial(cedula, cambios, esperada, version -> nuevaVersion[0] = version)) {
+                case ACTUALIZADO:
+                    return Response.noContent()
+                            .tag(etagPaciente(nuevaVersion[0]))
+                            .lastModified(aDate(nuevaVersion[0]))
+                            .build();
+                case NO_ENCONTRADO:
+                    if (condicionado) {
+                        return versionDistinta();
+                    }
+                    return Response.status(Response.Status.NOT_FOUND)
+                            .entity("{\"error\": \"Paciente no encontrado\"}")
+                            .build();
+                case VERSION_DISTINTA:
+                    return versionDistinta();
+                case CORREO_DUPLICADO:
+                    return Response.status(Response.Status.CONFLICT)
+                            .entity("{\"error\": \"El correo ya está registrado\", \"campo\": \"correo\"}")
+                            .build();
+                default:
+                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                            .entity("{\"error\": \"Error al actualizar paciente\"}")
+                            .build();
+            }
+        });
     }
 
     /*
      * Método que maneja la solicitud PUT para activar un paciente
      * @param cedula Parámetro que define el número de cédula del paciente a activar
-     * @return Respuesta HTTP con mensaje de confirmación o error
+     * @param async Parámetro que define la respuesta asíncrona con mensaje de confirmación o error
      * */
     @PUT
     @Path("/{cedula}/activar")
-    public Response activar(@PathParam("cedula") String cedula) {
-        boolean actualizado = pacienteDAO.toggleActivo(cedula, true);
-        if (actualizado) {
-            return Response.ok("{\"message\": \"Paciente activado\"}").build();
-        }
-        return Response.status(Response.Status.NOT_FOUND)
-                .entity("{\"error\": \"Paciente no encontrado\"}")
-                .build();
+    public void activar(@PathParam("cedula") String cedula, @Suspended AsyncResponse async) {
+        EjecutorAsincrono.ejecutar(async, ClaseOperacion.ESCRITURA, () -> {
+            boolean actualizado = pacienteDAO.toggleActivo(cedula, true);
+            if (actualizado) {
+                return Response.ok("{\"message\": \"Paciente activado\"}").build();
+            }
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"error\": \"Paciente no encontrado\"}")
+                    .build();
+        });
     }
 
     /*
      * Método que maneja la solicitud PUT para eliminar permanentemente un paciente
      * @param cedula Parámetro que define el número de cédula del paciente a eliminar
-     * @return Respuesta HTTP con mensaje de confirmación o error
+     * @param async Parámetro que define la respuesta asíncrona con mensaje de confirmación o error
      * */
     @PUT
     @Path("/{cedula}/desactivar")
-    public Response desactivar(@PathParam("cedula") String cedula) {
-        boolean eliminado = pacienteDAO.delete(cedula); // Llama a delete para borrado físico
-        if (eliminado) {
-            return Response.ok("{\"message\": \"Paciente eliminado permanentemente\"}").build();
-        }
-        return Response.status(Response.Status.NOT_FOUND)
-                .entity("{\"error\": \"Paciente no encontrado\"}")
-                .build();
+    public void desactivar(@PathParam("cedula") String cedula, @Suspended AsyncResponse async) {
+        EjecutorAsincrono.ejecutar(async, ClaseOperacion.ESCRITURA, () -> {
+            boolean eliminado = pacienteDAO.delete(cedula); // Llama a delete para borrado físico
+            if (eliminado) {
+                return Response.ok("{\"message\": \"Paciente eliminado permanentemente\"}").build();
+            }
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"error\": \"Paciente no encontrado\"}")
+                    .build();
+        });
     }
 
     /*
      * Método que maneja la solicitud DELETE para eliminar permanentemente un paciente
      * @param cedula Parámetro que define el número de cédula del paciente a eliminar
-     * @return Respuesta HTTP con mensaje de confirmación o error
+     * @param async Parámetro que define la respuesta asíncrona con mensaje de confirmación o error
      * */
     @DELETE
     @Path("/{cedula}")
-    public Response delete(@PathParam("cedula") String cedula) {
-        boolean eliminado = pacienteDAO.delete(cedula);
-        if (eliminado) {
-            return Response.ok("{\"message\": \"Paciente eliminado permanentemente\"}").build();
+    public void delete(@PathParam("cedula") String cedula, @Suspended AsyncResponse async) {
+        EjecutorAsincrono.ejecutar(async, ClaseOperacion.ESCRITURA, () -> {
+            boolean eliminado = pacienteDAO.delete(cedula);
+            if (eliminado) {
+                return Response.ok("{\"message\": \"Paciente eliminado permanentemente\"}").build();
+            }
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"error\": \"Paciente no encontrado\"}")
+                    .build();
+        });
+    }
+
+    /*
+     * Método privado que calcula el ETag de un paciente a partir de su fecha de actualización
+     * @param fechaActualizacion Parámetro que define la fecha de última actualización del paciente
+     * @return ETag fuerte con los milisegundos de la fecha en base 36
+     * */
+    private static EntityTag etagPaciente(LocalDateTime fechaActualizacion) {
+        return new EntityTag(Long.toString(aDate(fechaActualizacion).getTime(), 36));
+    }
+
+    /*
+     * Método privado que calcula el ETag de una representación de un paciente con ?fields=. Cada
+     * proyección es una representación distinta, por lo que lleva la máscara después de un punto.
+     * @param fechaActualizacion Parámetro que define la fecha de última actualización del paciente
+     * @param campos Parámetro que define la máscara de CamposPaciente de la representación
+     * @return ETag fuerte con la versión y, si no son todos los campos, la máscara
+     * */
+    private static EntityTag etagPaciente(LocalDateTime fechaActualizacion, int campos) {
+        if (campos == CamposPaciente.TODOS) {
+            return etagPaciente(fechaActualizacion);
         }
-        return Response.status(Response.Status.NOT_FOUND)
-                .entity("{\"error\": \"Paciente no encontrado\"}")
-                .build();
+        return new EntityTag(Long.toString(aDate(fechaActualizacion).getTime(), 36)
+                + "." + Integer.toString(campos, 36));
+    }
+
+    /*
+     * Método privado que calcula un ETag débil para una página del listado
+     * @param pacientes Parámetro que define los pacientes de la página
+     * @param siguiente Parámetro que define el cursor de la página siguiente (puede ser null)
+     * @param campos Parámetro que define la máscara de CamposPaciente de la representación
+     * @return ETag débil derivado de las cédulas y fechas de actualización de la página
+     * */
+    private static EntityTag etagPagina(List<Paciente> pacientes, String siguiente, int campos) {
+        long hash = 1125899906842597L;
+        for (Paciente paciente : pacientes) {
+            hash = 31 * hash + paciente.getCedula().hashCode();
+            LocalDateTime version = paciente.getFechaActualizacion();
+            hash = 31 * hash + ((version == null) ? 0 : version.hashCode());
+        }
+        hash = 31 * hash + ((siguiente == null) ? 0 : siguiente.hashCode());
+        hash = 31 * hash + campos;
+        return new EntityTag(pacientes.size() + "-" + Long.toHexString(hash), true);
     }
 
     /*
-     * Método privado para validar una cédula ecuatoriana
-     * @param cedula Parámetro que define el número de cédula a validar
-     * @return true si la cédula es válida, false en caso contrario
+     * Método privado que obtiene la fecha de actualización más reciente de una página
+     * @param pacientes Parámetro que define los pacientes de la página
+     * @return Fecha más reciente, o null si la página está vacía
      * */
-    private boolean validarCedulaEcuatoriana(String cedula) {
-        if (cedula == null || cedula.length() != 10) {
-            return false;
+    private static Date ultimaModificacion(List<Paciente> pacientes) {
+        LocalDateTime maxima = null;
+        for (Paciente paciente : pacientes) {
+            LocalDateTime version = paciente.getFechaActualizacion();
+            if (version != null && (maxima == null || version.isAfter(maxima))) {
+                maxima = version;
+            }
         }
+        return (maxima == null) ? null : aDate(maxima);
+    }
 
-        if (!cedula.matches("\\d{10}")) {
-            return false;
+    /*
+     * Método privado que convierte una fecha leída de la base de datos a Date para los headers HTTP
+     * @param fecha Parámetro que define la fecha en la zona horaria del servidor
+     * @return Instante equivalente
+     * */
+    private static Date aDate(LocalDateTime fecha) {
+        return Date.from(fecha.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    /*
+     * Método privado que obtiene la fecha de actualización representada por un ETag de paciente
+     * @param etag Parámetro que define el valor del ETag sin comillas (con o sin la máscara de ?fields=)
+     * @return Fecha de actualización, o null si el valor no es un ETag de paciente
+     * */
+    private static LocalDateTime versionDeEtag(String etag) {
+        int punto = etag.indexOf('.');
+        String version = (punto < 0) ? etag : etag.substring(0, punto);
+        try {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(version, 36)), ZoneId.systemDefault());
+        } catch (NumberFormatException e) {
+            return null;
         }
+    }
 
-        int[] coeficientes = {2, 1, 2, 1, 2, 1, 2, 1, 2};
-        int verificador = Integer.parseInt(cedula.substring(9, 10));
-        int suma = 0;
+    /*
+     * Método privado que arma la respuesta 412 cuando el paciente cambió desde que el cliente lo leyó
+     * @return Respuesta HTTP 412 Precondition Failed
+     * */
+    private static Response versionDistinta() {
+        return Response.status(Response.Status.PRECONDITION_FAILED)
+                .entity("{\"error\": \"El paciente fue modificado por otra solicitud\"}")
+                .build();
+    }
 
-        for (int i = 0; i < 9; i++) {
-            int valor = Integer.parseInt(cedula.substring(i, i + 1)) * coeficientes[i];
-            suma += (valor > 9) ? valor - 9 : valor;
+    /*
+     * Método privado que lee un parámetro booleano opcional; solo acepta true o false
+     * @param nombre Parámetro que define el nombre del parámetro, para el mensaje de error
+     * @param valor Parámetro que define el texto recibido, null si no vino
+     * @return Valor leído, o null si el parámetro no vino
+     * @throws IllegalArgumentException Si el texto no es true ni false
+     * */
+    private static Boolean booleanoOpcional(String nombre, String valor) {
+        if (valor == null) {
+            return null;
         }
+        if ("true".equals(valor) || "false".equals(valor)) {
+            return Boolean.valueOf(valor);
+        }
+        throw new IllegalArgumentException("El parámetro " + nombre + " debe ser true o false");
+    }
 
-        int digitoCalculado = (suma % 10 == 0) ? 0 : 10 - (suma % 10);
+    /*
+     * Método privado que valida un JSON Merge Patch y lo traduce a columnas y valores
+     * @param cedula Parámetro que define la cédula de la URL, que no se puede cambiar
+     * @param parche Parámetro que define el documento recibido
+     * @param cambios Parámetro que define el mapa donde se dejan los valores por columna
+     * @return Mensaje de error si el parche no es válido, null si es válido
+     * */
+    private static String leerParche(String cedula, JsonObject parche, Map<String, Object> cambios) {
+        if (parche == null) {
+            return "Datos del paciente requeridos";
+        }
+        for (Map.Entry<String, JsonValue> campo : parche.entrySet()) {
+            JsonValue valor = campo.getValue();
+            switch (campo.getKey()) {
+                case "cedula":
+                    if (!(valor instanceof JsonString) || !cedula.equals(((JsonString) valor).getString())) {
+                        return "La cédula no coincide";
+                    }
+                    break;
+                case "nombre":
+                case "correo":
+                    if (!(valor instanceof JsonString) || ((JsonString) valor).getString().trim().isEmpty()) {
+                        return "Nombre, cédula y correo son obligatorios";
+                    }
+                    cambios.put(campo.getKey(), ((JsonString) valor).getString());
+                    break;
+                case "edad":
+                    if (!(valor instanceof JsonNumber) || !((JsonNumber) valor).isIntegral()
+                            || ((JsonNumber) valor).longValue() <= 0 || ((JsonNumber) valor).longValue() > 120) {
+                        return "Edad debe estar entre 1 y 120 años";
+                    }
+                    cambios.put("edad", ((JsonNumber) valor).intValue());
+                    break;
+                case "direccion":
+                    if (valor.getValueType() == JsonValue.ValueType.NULL) {
+                        cambios.put("direccion", null);
+                    } else if (valor instanceof JsonString) {
+                        cambios.put("direccion", ((JsonString) valor).getString());
+                    } else {
+                        return "La dirección debe ser texto";
+                    }
+                    break;
+                case "activo":
+                    if (valor.getValueType() != JsonValue.ValueType.TRUE
+                            && valor.getValueType() != JsonValue.ValueType.FALSE) {
+                        return "El estado activo debe ser true o false";
+                    }
+                    cambios.put("activo", valor.getValueType() == JsonValue.ValueType.TRUE);
+                    break;
+                default:
+                    return "El parche contiene campos desconocidos o que no se pueden modificar";
+            }
+        }
+        if (cambios.isEmpty()) {
+            return "El parche no contiene cambios";
+        }
+        return null;
+    }
 
-        return digitoCalculado == verificador;
+    /*
+     * Método privado que traduce el resultado de una inserción al resultado de la carga masiva
+     * @param indice Parámetro que define la posición del paciente en la solicitud
+     * @param cedula Parámetro que define la cédula del paciente
+     * @param insercion Parámetro que define el resultado devuelto por el DAO
+     * @return Resultado del registro para la respuesta
+     * */
+    private ResultadoRegistro aResultadoRegistro(int indice, String cedula, ResultadoInsercion insercion) {
+        switch (insercion) {
+            case CREADO:
+                return new ResultadoRegistro(indice, cedula, ResultadoRegistro.CREADO, null);
+            case CEDULA_DUPLICADA:
+                return new ResultadoRegistro(indice, cedula, ResultadoRegistro.CONFLICTO,
+                        "La cédula ya está registrada");
+            case CORREO_DUPLICADO:
+                return new ResultadoRegistro(indice, cedula, ResultadoRegistro.CONFLICTO,
+                        "El correo ya está registrado");
+            default:
+                return new ResultadoRegistro(indice, cedula, ResultadoRegistro.ERROR,
+                        "Error al crear paciente en la base de datos");
+        }
     }
 }
@@ -0,0 +1,137 @@
+package resource;
+
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada Precondiciones guarda los headers condicionales de una
+ *              solicitud (If-None-Match, If-Modified-Since, If-Match) y decide si la respuesta puede
+ *              ser 304 Not Modified o qué versión espera el cliente al modificar. Se copian en el
+ *              hilo de la solicitud para poder evaluarlos después en otro hilo, donde los objetos
+ *              @Context de JAX-RS ya no están disponibles.
+ * */
+
+public final class Precondiciones {
+
+    private final String ifNoneMatch;
+    private final Date ifModifiedSince;
+    private final String ifMatch;
+
+    /*
+     * Constructor con los valores ya interpretados de los headers
+     * @param ifNoneMatch Parámetro que define el valor de If-None-Match, o null
+     * @param ifModifiedSince Parámetro que define la fecha de If-Modified-Since, o null
+     * @param ifMatch Parámetro que define el valor de If-Match, o null
+     * */
+    private Precondiciones(String ifNoneMatch, Date ifModifiedSince, String ifMatch) {
+        this.ifNoneMatch = ifNoneMatch;
+        this.ifModifiedSince = ifModifiedSince;
+        this.ifMatch = ifMatch;
+    }
+
+    /*
+     * Método que copia los headers condicionales de la solicitud actual
+     * @param headers Parámetro que define los headers HTTP de la solicitud
+     * @return Precondiciones de la solicitud
+     * */
+    public static Precondiciones desde(HttpHeaders headers) {
+        return new Precondiciones(headers.getHeaderString(HttpHeaders.IF_NONE_MATCH),
+                aFecha(headers.getHeaderString(HttpHeaders.IF_MODIFIED_SINCE)),
+                headers.getHeaderString(HttpHeaders.IF_MATCH));
+    }
+
+    /*
+     * Método que obtiene el ETag que exige If-Match usando comparación fuerte (RFC 7232): un ETag
+     * débil nunca coincide. Solo se admite un ETag, que es lo que envía un cliente que leyó el recurso.
+     * @return Valor del ETag sin comillas, "*" si acepta cualquier versión, "" si el header no puede
+     *         coincidir con ninguna versión (débil, varios ETags o mal formado), o null si no viene
+     * */
+    public String etagEsperado() {
+        if (ifMatch == null) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.equals("*")) {
+            return valor;
+        }
+        if (valor.length() < 2 || !valor.startsWith("\"") || !valor.endsWith("\"")
+                || valor.indexOf('"', 1) != valor.length() - 1) {
+            return "";
+        }
+        return valor.substring(1, valor.length() - 1);
+    }
+
+    /*
+     * Método que indica si la solicitud trae algún header condicional
+     * @return true si viene If-None-Match o If-Modified-Since válido
+     * */
+    public boolean esCondicional() {
+        return ifNoneMatch != null || ifModifiedSince != null;
+    }
+
+    /*
+     * Método que decide si el cliente ya tiene la versión actual (RFC 7232: If-None-Match tiene
+     * prioridad y, si está presente, If-Modified-Since se ignora)
+     * @param etag Parámetro que define el ETag de la versión actual
+     * @param ultimaModificacion Parámetro que define la fecha de la versión actual, puede ser null
+     * @return true si se puede responder 304 Not Modified
+     * */
+    public boolean noModificado(EntityTag etag, Date ultimaModificacion) {
+        if (ifNoneMatch != null) {
+            return coincide(ifNoneMatch, etag);
+        }
+        if (ifModifiedSince != null && ultimaModificacion != null) {
+            // Los headers HTTP tienen precisión de segundos
+            return ultimaModificacion.getTime() / 1000 <= ifModifiedSince.getTime() / 1000;
+        }
+        return false;
+    }
+
+    /*
+     * Método que compara una lista de ETags con el actual usando comparación débil
+     * @param lista Parámetro que define el valor del header (ej. "abc", W/"def" o *)
+     * @param etag Parámetro que define el ETag actual
+     * @return true si alguno de la lista coincide
+     * */
+    static boolean coincide(String lista, EntityTag etag) {
+        if (lista.trim().equals("*")) {
+            return true;
+        }
+        for (String candidato : lista.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.length() >= 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+                valor = valor.substring(1, valor.length() - 1);
+            }
+            if (valor.equals(etag.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Método que interpreta una fecha HTTP (RFC 1123)
+     * @param valor Parámetro que define el texto del header
+     * @return Fecha interpretada, o null si falta o no es válida
+     * */
+    private static Date aFecha(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return Date.from(ZonedDateTime.parse(valor.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package validacion;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada ValidadorCedula valida números de cédula ecuatoriana
+ *              (personas naturales) recorriendo directamente los caracteres, sin expresiones
+ *              regulares, subcadenas ni objetos intermedios, por lo que no genera basura.
+ *              Reglas: 10 dígitos, código de provincia 01-24 o 30 (ecuatorianos en el exterior),
+ *              tercer dígito menor que 6 y dígito verificador según el algoritmo de módulo 10.
+ * */
+
+public final class ValidadorCedula {
+
+    private static final int LONGITUD = 10;
+    private static final int PROVINCIA_MAXIMA = 24;
+    private static final int PROVINCIA_EXTERIOR = 30;
+    private static final int TERCER_DIGITO_MAXIMO = 5;
+
+    /*
+     * Constructor privado: clase de utilidades estáticas
+     * */
+    private ValidadorCedula() {
+    }
+
+    /*
+     * Método que valida una cédula ecuatoriana completa
+     * @param cedula Parámetro que define el número de cédula a validar
+     * @return true si la cédula es válida, false en caso contrario
+     * */
+    public static boolean esValida(CharSequence cedula) {
+        if (cedula == null || cedula.length() != LONGITUD) {
+            return false;
+        }
+
+        int suma = 0;
+        for (int i = 0; i < LONGITUD - 1; i++) {
+            int digito = cedula.charAt(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return false;
+            }
+            // Coeficientes 2,1,2,1...: en posiciones pares se duplica y se resta 9 si pasa de 9
+            int valor = ((i & 1) == 0) ? digito << 1 : digito;
+            suma += (valor > 9) ? valor - 9 : valor;
+        }
+
+        int verificador = cedula.charAt(LONGITUD - 1) - '0';
+        if (verificador < 0 || verificador > 9) {
+            return false;
+        }
+
+        int provincia = (cedula.charAt(0) - '0') * 10 + (cedula.charAt(1) - '0');
+        if ((provincia < 1 || provincia > PROVINCIA_MAXIMA) && provincia != PROVINCIA_EXTERIOR) {
+            return false;
+        }
+        if (cedula.charAt(2) - '0' > TERCER_DIGITO_MAXIMO) {
+            return false;
+        }
+
+        int residuo = suma % 10;
+        int digitoCalculado = (residuo == 0) ? 0 : 10 - residuo;
+        return digitoCalculado == verificador;
+    }
+
+    /*
+     * Método que verifica solo la forma de una cédula (10 dígitos), sin el dígito verificador.
+     * Sirve en las búsquedas para descartar valores que no pueden existir en la tabla.
+     * @param cedula Parámetro que define el número de cédula a revisar
+     * @return true si la cédula tiene 10 dígitos, false en caso contrario
+     * */
+    public static boolean tieneFormato(CharSequence cedula) {
+        if (cedula == null || cedula.length() != LONGITUD) {
+            return false;
+        }
+        for (int i = 0; i < LONGITUD; i++) {
+            char c = cedula.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Método que valida un lote de cédulas sin crear objetos nuevos
+     * @param cedulas Parámetro que define las cédulas a validar
+     * @param resultados Parámetro que define el arreglo (del mismo tamaño o mayor) donde se guarda el resultado de cada cédula
+     * @return Número de cédulas válidas del lote
+     * */
+    public static int validarTodas(CharSequence[] cedulas, boolean[] resultados) {
+        if (resultados.length < cedulas.length) {
+            throw new IllegalArgumentException("El arreglo de resultados es más pequeño que el lote");
+        }
+        int validas = 0;
+        for (int i = 0; i < cedulas.length; i++) {
+            boolean valida = esValida(cedulas[i]);
+            resultados[i] = valida;
+            if (valida) {
+                validas++;
+            }
+        }
+        return validas;
+    }
+}
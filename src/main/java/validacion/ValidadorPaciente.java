@@ -0,0 +1,50 @@
+package validacion;
+
+import model.Paciente;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada ValidadorPaciente aplica las validaciones de negocio a un
+ *              paciente nuevo. La comparten el alta individual, la carga masiva y la importación CSV
+ *              para que las tres acepten y rechacen exactamente los mismos datos.
+ * */
+
+public final class ValidadorPaciente {
+
+    /*
+     * Constructor privado: clase de utilidades estáticas
+     * */
+    private ValidadorPaciente() {
+    }
+
+    /*
+     * Método que aplica las validaciones de negocio a un paciente nuevo
+     * @param paciente Parámetro que define el paciente a validar
+     * @return Mensaje de error si el paciente no es válido, null si es válido
+     * */
+    public static String validar(Paciente paciente) {
+        if (paciente == null) {
+            return "Datos del paciente requeridos";
+        }
+
+        // Validar cédula
+        if (!ValidadorCedula.esValida(paciente.getCedula())) {
+            return "Cédula ecuatoriana inválida";
+        }
+
+        // Validar campos obligatorios
+        if (paciente.getNombre() == null || paciente.getNombre().trim().isEmpty() ||
+                paciente.getCorreo() == null || paciente.getCorreo().trim().isEmpty() ||
+                paciente.getCedula() == null || paciente.getCedula().trim().isEmpty()) {
+            return "Nombre, cédula y correo son obligatorios";
+        }
+
+        // Validar edad
+        if (paciente.getEdad() <= 0 || paciente.getEdad() > 120) {
+            return "Edad debe estar entre 1 y 120 años";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,249 @@
+package dao;
+
+import org.junit.jupiter.api.Test;
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada EnrutadorDataSourceTest prueba el enrutamiento de conexiones
+ *              con DataSource falsos en memoria: turnos entre réplicas, suspensión y nueva prueba de
+ *              una réplica con fallas, vuelta al primario y la ventana de lectura de lo propio escrito.
+ * */
+
+class EnrutadorDataSourceTest {
+
+    // Espera y ventana largas: no vencen durante una prueba que no las espera a propósito
+    private static final long LARGO_MS = 60_000;
+
+    // Espera y ventana cortas, para las pruebas que sí esperan a que venzan
+    private static final long CORTO_MS = 200;
+
+    @Test
+    void sinReplicasTodoVaAlPrimario() throws SQLException {
+        DataSourceFalso primario = new DataSourceFalso("primario");
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(primario, Collections.emptyList(), LARGO_MS, LARGO_MS);
+
+        assertEquals("primario", origen(enrutador.lectura("prueba", "1712345678")));
+        assertEquals("primario", origen(enrutador.lectura("prueba", (String) null)));
+        assertEquals(2, enrutador.getLecturasPrimario());
+        assertEquals(0, enrutador.getLecturasReplica());
+    }
+
+    @Test
+    void lasEscriturasVanSiempreAlPrimario() throws SQLException {
+        DataSourceFalso primario = new DataSourceFalso("primario");
+        DataSourceFalso replica = new DataSourceFalso("replica");
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(primario, List.of(replica), LARGO_MS, LARGO_MS);
+
+        assertEquals("primario", origen(enrutador.escritura("prueba")));
+        assertEquals(0, replica.pedidas.get());
+    }
+
+    @Test
+    void lasLecturasSeRepartenPorTurnos() throws SQLException {
+        DataSourceFalso primario = new DataSourceFalso("primario");
+        DataSourceFalso a = new DataSourceFalso("a");
+        DataSourceFalso b = new DataSourceFalso("b");
+        DataSourceFalso c = new DataSourceFalso("c");
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(primario, List.of(a, b, c), LARGO_MS, LARGO_MS);
+
+        for (int i = 0; i < 6; i++) {
+            origen(enrutador.lectura("prueba", (String) null));
+        }
+        assertEquals(2, a.pedidas.get());
+        assertEquals(2, b.pedidas.get());
+        assertEquals(2, c.pedidas.get());
+        assertEquals(0, primario.pedidas.get());
+        assertEquals(6, enrutador.getLecturasReplica());
+    }
+
+    @Test
+    void unaReplicaQueFallaSeSuspendeYSeSaltaEnLosTurnos() throws SQLException {
+        DataSourceFalso primario = new DataSourceFalso("primario");
+        DataSourceFalso a = new DataSourceFalso("a");
+        DataSourceFalso b = new DataSourceFalso("b");
+        a.caido = true;
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(primario, List.of(a, b), LARGO_MS, LARGO_MS);
+
+        // El primer turno es de a: falla, se suspende y la lectura pasa a b
+        assertEquals("b", origen(enrutador.lectura("prueba", (String) null)));
+        assertEquals(1, enrutador.getFallosReplica());
+        assertEquals(1, enrutador.getReplicasSanas());
+
+        // Mientras dure la suspensión a no se vuelve a pedir, aunque ya esté disponible
+        a.caido = false;
+        for (int i = 0; i < 4; i++) {
+            assertEquals("b", origen(enrutador.lectura("prueba", (String) null)));
+        }
+        assertEquals(1, a.pedidas.get());
+    }
+
+    @Test
+    void sinReplicasSanasLaLecturaVuelveAlPrimario() throws SQLException {
+        DataSourceFalso primario = new DataSourceFalso("primario");
+        DataSourceFalso a = new DataSourceFalso("a");
+        DataSourceFalso b = new DataSourceFalso("b");
+        a.caido = true;
+        b.caido = true;
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(primario, List.of(a, b), LARGO_MS, LARGO_MS);
+
+        assertEquals("primario", origen(enrutador.lectura("prueba", (String) null)));
+        assertEquals("primario", origen(enrutador.lectura("prueba", (String) null)));
+        assertEquals(0, enrutador.getReplicasSanas());
+        assertEquals(2, enrutador.getFallosReplica());
+        assertEquals(2, enrutador.getLecturasPrimario());
+    }
+
+    @Test
+    void siTambienFallaElPrimarioSePropagaElError() {
+        DataSourceFalso primario = new DataSourceFalso("primario");
+        DataSourceFalso a = new DataSourceFalso("a");
+        primario.caido = true;
+        a.caido = true;
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(primario, List.of(a), LARGO_MS, LARGO_MS);
+
+        assertThrows(SQLException.class, () -> enrutador.lectura("prueba", (String) null));
+    }
+
+    @Test
+    void vencidaLaEsperaUnaSolaLecturaPruebaLaReplica() throws Exception {
+        DataSourceFalso primario = new DataSourceFalso("primario");
+        DataSourceFalso a = new DataSourceFalso("a");
+        a.caido = true;
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(primario, List.of(a), CORTO_MS, LARGO_MS);
+
+        assertEquals("primario", origen(enrutador.lectura("prueba", (String) null)));
+        Thread.sleep(CORTO_MS * 2);
+
+        // La prueba falla de nuevo: la réplica vuelve a quedar suspendida tras un solo intento
+        assertEquals("primario", origen(enrutador.lectura("prueba", (String) null)));
+        assertEquals("primario", origen(enrutador.lectura("prueba", (String) null)));
+        assertEquals(2, a.pedidas.get());
+
+        // Vencida otra vez y ya recuperada, la prueba la devuelve a la rotación
+        a.caido = false;
+        Thread.sleep(CORTO_MS * 2);
+        assertEquals("a", origen(enrutador.lectura("prueba", (String) null)));
+        assertEquals(1, enrutador.getReplicasSanas());
+        assertEquals("a", origen(enrutador.lectura("prueba", (String) null)));
+    }
+
+    @Test
+    void unaCedulaEscritaSeLeeDelPrimarioDuranteLaVentana() throws Exception {
+        DataSourceFalso primario = new DataSourceFalso("primario");
+        DataSourceFalso a = new DataSourceFalso("a");
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(primario, List.of(a), LARGO_MS, CORTO_MS);
+
+        enrutador.registrarEscritura("1712345678");
+        assertEquals("primario", origen(enrutador.lectura("prueba", "1712345678")));
+        assertEquals("a", origen(enrutador.lectura("prueba", "1798765432")));
+        assertEquals("a", origen(enrutador.lectura("prueba", (String) null)));
+
+        // Una lectura de varias cédulas va al primario si alguna se escribió hace poco
+        assertEquals("primario", origen(enrutador.lectura("prueba", Arrays.asList("1798765432", "1712345678"))));
+        assertEquals("a", origen(enrutador.lectura("prueba", Arrays.asList("1798765432", "1700000000"))));
+
+        Thread.sleep(CORTO_MS * 2);
+        assertEquals("a", origen(enrutador.lectura("prueba", "1712345678")));
+        assertEquals("a", origen(enrutador.lectura("prueba", Collections.singletonList("1712345678"))));
+    }
+
+    /*
+     * Método que obtiene el nombre del DataSource que entregó la conexión y la cierra
+     * @param conexion Parámetro que define la conexión entregada por el enrutador
+     * @return Nombre del DataSource falso de origen
+     * */
+    private static String origen(Connection conexion) throws SQLException {
+        try (Connection c = conexion) {
+            return c.getCatalog();
+        }
+    }
+
+    /*
+     * DataSource en memoria que cuenta las conexiones pedidas y puede simular una caída.
+     * Sus conexiones solo responden getCatalog (con el nombre del DataSource) y close.
+     * */
+    private static final class DataSourceFalso implements DataSource {
+        private final String nombre;
+        private final AtomicInteger pedidas = new AtomicInteger();
+        private volatile boolean caido;
+
+        private DataSourceFalso(String nombre) {
+            this.nombre = nombre;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            pedidas.incrementAndGet();
+            if (caido) {
+                throw new SQLException("DataSource " + nombre + " caído");
+            }
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, metodo, argumentos) -> {
+                        switch (metodo.getName()) {
+                            case "getCatalog":
+                                return nombre;
+                            case "close":
+                                return null;
+                            case "isClosed":
+                                return false;
+                            default:
+                                throw new UnsupportedOperationException(metodo.getName());
+                        }
+                    });
+        }
+
+        @Override
+        public Connection getConnection(String usuario, String clave) throws SQLException {
+            return getConnection();
+        }
+
+        @Override
+        public PrintWriter getLogWriter() {
+            return null;
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter salida) {
+        }
+
+        @Override
+        public void setLoginTimeout(int segundos) {
+        }
+
+        @Override
+        public int getLoginTimeout() {
+            return 0;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> clase) throws SQLException {
+            throw new SQLException("No es un envoltorio");
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> clase) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package ejecucion;
+
+import importacion.ImportadorCsv;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Author: Mateo Lasso
+ * Fecha: 17-10-2026
+ * Versión: 1.0
+ * Descripción: Esta clase denominada SalidaConPermisoTest prueba que el cupo de una respuesta en
+ *              streaming se devuelve exactamente una vez, se escriba el cuerpo, falle la escritura o
+ *              la solicitud se complete sin llegar a escribirlo.
+ * */
+
+class SalidaConPermisoTest {
+
+    @Test
+    void completarSinEscribirDevuelveElCupo() {
+        AtomicInteger liberaciones = new AtomicInteger();
+        SalidaConPermiso salida = new SalidaConPermiso(output -> { }, liberaciones::incrementAndGet);
+
+        salida.onComplete(null);
+
+        assertTrue(salida.isLiberado());
+        assertEquals(1, liberaciones.get());
+    }
+
+    @Test
+    void escribirYCompletarDevuelveElCupoUnaSolaVez() throws IOException {
+        AtomicInteger liberaciones = new AtomicInteger();
+        SalidaConPermiso salida = new SalidaConPermiso(
+                output -> output.write("ok".getBytes(StandardCharsets.UTF_8)), liberaciones::incrementAndGet);
+        ByteArrayOutputStream destino = new ByteArrayOutputStream();
+
+        salida.write(destino);
+        assertEquals(1, liberaciones.get());
+        salida.onComplete(null);
+
+        assertEquals("ok", destino.toString(StandardCharsets.UTF_8));
+        assertEquals(1, liberaciones.get());
+    }
+
+    @Test
+    void unaEscrituraFallidaDevuelveElCupo() {
+        AtomicInteger liberaciones = new AtomicInteger();
+        SalidaConPermiso salida = new SalidaConPermiso(output -> {
+            throw new IOException("cliente desconectado");
+        }, liberaciones::incrementAndGet);
+
+        assertThrows(IOException.class, () -> salida.write(new ByteArrayOutputStream()));
+        salida.onComplete(new IOException("cliente desconectado"));
+
+        assertEquals(1, liberaciones.get());
+    }
+
+    @Test
+    void unListadoNoEscritoNoRetieneSuPermiso() throws InterruptedException {
+        int antes = ControlAdmision.enCurso(ClaseOperacion.LISTADO);
+        ControlAdmision.Permiso permiso = ControlAdmision.admitir(ClaseOperacion.LISTADO);
+        assertNotNull(permiso);
+        SalidaConPermiso salida = new SalidaConPermiso(output -> { }, () -> ControlAdmision.liberar(permiso, false));
+        assertEquals(antes + 1, ControlAdmision.enCurso(ClaseOperacion.LISTADO));
+        assertFalse(salida.isLiberado());
+
+        // HEAD o un interceptor que falla: JAX-RS completa la solicitud sin llamar a write
+        salida.onComplete(null);
+        salida.onComplete(null);
+
+        assertEquals(antes, ControlAdmision.enCurso(ClaseOperacion.LISTADO));
+    }
+
+    @Test
+    void unaImportacionNoEscritaDevuelveSuCupo() {
+        // Se toman todos los cupos y se devuelven sin escribir: después deben poder reservarse de nuevo
+        List<SalidaConPermiso> salidas = new ArrayList<>();
+        while (ImportadorCsv.reservar()) {
+            salidas.add(new SalidaConPermiso(output -> { }, ImportadorCsv::liberar));
+        }
+        int reservados = salidas.size();
+        assertTrue(reservados > 0);
+        for (SalidaConPermiso salida : salidas) {
+            salida.onComplete(null);
+        }
+
+        for (int i = 0; i < reservados; i++) {
+            assertTrue(ImportadorCsv.reservar());
+        }
+        assertFalse(ImportadorCsv.reservar());
+        for (int i = 0; i < reservados; i++) {
+            ImportadorCsv.liberar();
+        }
+    }
+}